@@ -10,6 +10,7 @@ USE library_db;
 -- ============================================
 -- DROP EXISTING TABLES (if needed)
 -- ============================================
+DROP TABLE IF EXISTS issue_archive;
 DROP TABLE IF EXISTS issue;
 DROP TABLE IF EXISTS book;
 DROP TABLE IF EXISTS user;
@@ -26,6 +27,7 @@ CREATE TABLE user (
     phone VARCHAR(15),
     address TEXT,
     is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    token_version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_email (email)
@@ -62,6 +64,7 @@ CREATE TABLE issue (
     user_id BIGINT NOT NULL,
     member_name VARCHAR(255) NOT NULL,
     member_email VARCHAR(255) NOT NULL,
+    member_type VARCHAR(50),
     issue_date DATE NOT NULL,
     due_date DATE NOT NULL,
     return_date DATE,
@@ -72,8 +75,37 @@ CREATE TABLE issue (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
-    INDEX idx_book_id (book_id),
-    INDEX idx_status (status)
+    INDEX idx_book_issue_date (book_id, issue_date),
+    INDEX idx_user_issue_date (user_id, issue_date),
+    INDEX idx_member_email_issue_date (member_email, issue_date),
+    INDEX idx_status_due_date (status, due_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- TABLE: issue_archive (returned issues moved out of issue)
+-- ============================================
+CREATE TABLE issue_archive (
+    id BIGINT PRIMARY KEY,
+    book_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    member_name VARCHAR(255) NOT NULL,
+    member_email VARCHAR(255) NOT NULL,
+    member_type VARCHAR(50),
+    issue_date DATE NOT NULL,
+    due_date DATE NOT NULL,
+    return_date DATE,
+    fine DECIMAL(10, 2),
+    status VARCHAR(50) NOT NULL,
+    remarks TEXT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP NULL,
+    FOREIGN KEY (book_id) REFERENCES book(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
+    INDEX idx_archive_book_issue_date (book_id, issue_date),
+    INDEX idx_archive_user_issue_date (user_id, issue_date),
+    INDEX idx_archive_member_email_issue_date (member_email, issue_date),
+    INDEX idx_archive_due_date (due_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ============================================
@@ -1,9 +1,15 @@
 package com.library.management;
 
+import com.library.management.config.FinePolicyProperties;
+import com.library.management.config.RateLimitProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties({FinePolicyProperties.class, RateLimitProperties.class})
 public class LibraryManagementApplication {
 
     public static void main(String[] args) {
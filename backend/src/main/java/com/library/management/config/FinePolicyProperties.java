@@ -0,0 +1,47 @@
+package com.library.management.config;
+
+import com.library.management.util.FineCalculator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loan and fine rules bound from {@code fines.policy.*}. A rule matches on
+ * book category and member type ("*" or blank matches any); the most
+ * specific match wins and unset fields fall back to {@link #defaults}.
+ */
+@Data
+@ConfigurationProperties(prefix = "fines.policy")
+public class FinePolicyProperties {
+
+    private Rule defaults = new Rule(null, null, FineCalculator.DEFAULT_LOAN_DAYS, 0,
+            FineCalculator.toAmount(FineCalculator.FINE_PER_DAY_CENTS),
+            FineCalculator.toAmount(FineCalculator.MAX_FINE_CENTS));
+
+    private List<Rule> rules = new ArrayList<>();
+
+    private List<DayOfWeek> closedWeekdays = new ArrayList<>();
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private List<LocalDate> closedDates = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private String category;
+        private String memberType;
+        private Integer loanDays;
+        private Integer graceDays;
+        private BigDecimal ratePerDay;
+        private BigDecimal maxFine;
+    }
+}
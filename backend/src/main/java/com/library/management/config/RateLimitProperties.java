@@ -0,0 +1,48 @@
+package com.library.management.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route request limits bound from {@code ratelimit.*}. A request is
+ * governed by the first route with a matching path pattern; requests that
+ * match no route are not limited.
+ */
+@Data
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        private String name;
+        // Ant-style path patterns, e.g. /api/books/search
+        private List<String> patterns = new ArrayList<>();
+        // Paths under the patterns that this route does not cover
+        private List<String> excludePatterns = new ArrayList<>();
+        // Token bucket per client: burst size and sustained requests per second
+        private int capacity = 60;
+        private double refillPerSecond = 10;
+        // Concurrent requests for the whole route, adjusted between min and max
+        private int initialConcurrency = 20;
+        private int minConcurrency = 2;
+        private int maxConcurrency = 200;
+        // Responses slower than this shrink the concurrency limit
+        private long latencyThresholdMs = 500;
+        // JSON body field with a bucket of its own per value, checked after the
+        // anonymous client's bucket, e.g. email for login
+        private String bodyKeyField;
+        // Buckets kept per map before the ones closest to full are dropped
+        private int maxClients = 100_000;
+    }
+}
@@ -1,13 +1,28 @@
 package com.library.management.controller;
 
 import com.library.management.dto.BookDTO;
+import com.library.management.dto.FacetedSearchResponse;
+import com.library.management.dto.ImportReport;
+import com.library.management.dto.PageResponse;
+import com.library.management.dto.SuggestionDTO;
+import com.library.management.service.BookImportService;
 import com.library.management.service.BookService;
+import com.library.management.service.ExportService;
+import com.library.management.service.ResourceVersions;
+import com.library.management.util.ConditionalGet;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/books")
@@ -16,14 +31,34 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        return ResponseEntity.ok(bookService.getAllBooks());
+    public ResponseEntity<PageResponse<BookDTO>> getBooks(@RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "50") int limit,
+                                                          @RequestParam(defaultValue = "id") String sort,
+                                                          WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.booksETag(),
+                () -> bookService.getBooks(after, limit, sort));
+    }
+
+    @GetMapping(params = "unpaged=true")
+    public ResponseEntity<List<BookDTO>> getAllBooks(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.booksETag(), bookService::getAllBooks);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BookDTO> getBookById(@PathVariable Long id) {
-        return ResponseEntity.ok(bookService.getBookById(id));
+    public ResponseEntity<BookDTO> getBookById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime updatedAt = bookService.getBookUpdatedAt(id);
+        return ConditionalGet.respond(request, ConditionalGet.rowETag("book", id, updatedAt), updatedAt,
+                () -> bookService.getBookById(id));
     }
 
     @PostMapping
@@ -31,6 +66,13 @@ public class BookController {
         return ResponseEntity.ok(bookService.createBook(bookDTO));
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importBooks(InputStream body,
+                                                    @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                    @RequestParam(required = false) String format) throws IOException {
+        return ResponseEntity.ok(bookImportService.importBooks(body, format != null ? format : contentType));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BookDTO> updateBook(@PathVariable Long id, @Valid @RequestBody BookDTO bookDTO) {
         return ResponseEntity.ok(bookService.updateBook(id, bookDTO));
@@ -43,7 +85,47 @@ public class BookController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<BookDTO>> searchBooks(@RequestParam String keyword) {
-        return ResponseEntity.ok(bookService.searchBooks(keyword));
+    public ResponseEntity<PageResponse<BookDTO>> searchBooks(@RequestParam String keyword,
+                                                             @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                             WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.booksETag(),
+                () -> bookService.searchBooks(keyword, fuzzy));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedSearchResponse> browseBooks(@RequestParam(required = false) String keyword,
+                                                             @RequestParam(required = false) String category,
+                                                             @RequestParam(required = false) String publisher,
+                                                             @RequestParam(required = false) String yearBucket,
+                                                             @RequestParam(required = false) Boolean available,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(defaultValue = "20") int limit,
+                                                             WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.booksETag(),
+                () -> bookService.browseBooks(keyword, category, publisher, yearBucket, available, after, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggestBooks(@RequestParam String prefix,
+                                                            @RequestParam(defaultValue = "10") int limit,
+                                                            WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.booksETag(),
+                () -> bookService.suggestBooks(prefix, limit));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(bookService.getCacheStats());
+    }
+
+    @GetMapping("/export")
+    public void exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"books." + exportFormat.getExtension() + "\"");
+        exportService.exportBooks(exportFormat, response.getOutputStream());
     }
 }
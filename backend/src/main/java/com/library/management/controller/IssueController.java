@@ -1,12 +1,29 @@
 package com.library.management.controller;
 
+import com.library.management.dto.BatchIssueRequest;
+import com.library.management.dto.BatchResult;
+import com.library.management.dto.BatchReturnRequest;
 import com.library.management.dto.IssueDTO;
+import com.library.management.dto.IssueFilter;
+import com.library.management.dto.PageResponse;
+import com.library.management.service.ExportService;
+import com.library.management.service.FineAccrualJob;
+import com.library.management.service.FinePolicy;
+import com.library.management.service.IssueArchiveJob;
 import com.library.management.service.IssueService;
+import com.library.management.service.ResourceVersions;
+import com.library.management.util.ConditionalGet;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -17,38 +34,151 @@ public class IssueController {
     @Autowired
     private IssueService issueService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private FineAccrualJob fineAccrualJob;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Autowired
+    private IssueArchiveJob issueArchiveJob;
+
     @PostMapping
     public ResponseEntity<IssueDTO> issueBook(@Valid @RequestBody IssueDTO issueDTO) {
         return ResponseEntity.ok(issueService.issueBook(issueDTO));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> issueBooks(@Valid @RequestBody BatchIssueRequest request) {
+        return ResponseEntity.ok(issueService.issueBooks(request));
+    }
+
+    @PutMapping("/return/batch")
+    public ResponseEntity<BatchResult> returnBooks(@Valid @RequestBody BatchReturnRequest request) {
+        return ResponseEntity.ok(issueService.returnBooks(request));
+    }
+
     @PutMapping("/return/{id}")
     public ResponseEntity<IssueDTO> returnBook(@PathVariable Long id) {
         return ResponseEntity.ok(issueService.returnBook(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<IssueDTO>> getAllIssues() {
-        return ResponseEntity.ok(issueService.getAllIssues());
+    public ResponseEntity<PageResponse<IssueDTO>> getIssues(@RequestParam(required = false) String status,
+                                                            @RequestParam(required = false) String memberEmail,
+                                                            @RequestParam(required = false) Long userId,
+                                                            @RequestParam(required = false) Long bookId,
+                                                            @RequestParam(required = false) String dueFrom,
+                                                            @RequestParam(required = false) String dueTo,
+                                                            @RequestParam(required = false) String issuedFrom,
+                                                            @RequestParam(required = false) String issuedTo,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam(defaultValue = "50") int limit,
+                                                            @RequestParam(defaultValue = "id") String sort,
+                                                            WebRequest request) {
+        IssueFilter filter = IssueFilter.builder()
+                .status(status)
+                .memberEmail(memberEmail)
+                .userId(userId)
+                .bookId(bookId)
+                .dueFrom(dueFrom)
+                .dueTo(dueTo)
+                .issuedFrom(issuedFrom)
+                .issuedTo(issuedTo)
+                .build();
+        return ConditionalGet.respond(request, resourceVersions.issuesETag(),
+                () -> issueService.getIssues(filter, after, limit, sort));
+    }
+
+    @GetMapping(params = "unpaged=true")
+    public ResponseEntity<List<IssueDTO>> getAllIssues(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.issuesETag(), issueService::getAllIssues);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<IssueDTO> getIssueById(@PathVariable Long id) {
-        return ResponseEntity.ok(issueService.getIssueById(id));
+    public ResponseEntity<IssueDTO> getIssueById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime updatedAt = issueService.getIssueUpdatedAt(id);
+        return ConditionalGet.respond(request, ConditionalGet.rowETag("issue", id, updatedAt), updatedAt,
+                () -> issueService.getIssueById(id));
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<IssueDTO>> getOverdueIssues() {
-        return ResponseEntity.ok(issueService.getOverdueIssues());
+    public ResponseEntity<List<IssueDTO>> getOverdueIssues(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.overdueIssuesETag(), issueService::getOverdueIssues);
+    }
+
+    @GetMapping(value = "/overdue", params = "limit")
+    public ResponseEntity<PageResponse<IssueDTO>> getOverdueIssuesPage(@RequestParam(required = false) String after,
+                                                                      @RequestParam int limit,
+                                                                      WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.overdueIssuesETag(),
+                () -> issueService.getOverdueIssues(after, limit));
+    }
+
+    @GetMapping("/recent")
+    public ResponseEntity<List<IssueDTO>> getRecentIssues(@RequestParam(defaultValue = "5") int limit,
+                                                          WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.issuesETag(),
+                () -> issueService.getRecentIssues(limit));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<IssueDTO>> getActiveIssues() {
-        return ResponseEntity.ok(issueService.getActiveIssues());
+    public ResponseEntity<List<IssueDTO>> getActiveIssues(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.issuesETag(), issueService::getActiveIssues);
     }
 
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         return ResponseEntity.ok(issueService.getDashboardStats());
     }
+
+    @GetMapping("/fines/accrual")
+    public ResponseEntity<Map<String, Object>> getLastFineAccrual() {
+        return ResponseEntity.ok(fineAccrualJob.getLastRun());
+    }
+
+    @PostMapping("/fines/accrual")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> accrueFines() {
+        return ResponseEntity.ok(fineAccrualJob.accrue());
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getLastArchiveRun() {
+        return ResponseEntity.ok(issueArchiveJob.getLastRun());
+    }
+
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> archiveIssues() {
+        return ResponseEntity.ok(issueArchiveJob.archive());
+    }
+
+    @GetMapping("/fines/policy")
+    public ResponseEntity<Map<String, Object>> getFinePolicy() {
+        return ResponseEntity.ok(finePolicy.getSummary());
+    }
+
+    @PostMapping("/fines/policy/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> reloadFinePolicy() {
+        return ResponseEntity.ok(finePolicy.reload());
+    }
+
+    @GetMapping("/export")
+    public void exportIssues(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"issues." + exportFormat.getExtension() + "\"");
+        exportService.exportIssues(exportFormat, response.getOutputStream());
+    }
 }
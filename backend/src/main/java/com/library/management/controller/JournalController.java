@@ -0,0 +1,28 @@
+package com.library.management.controller;
+
+import com.library.management.dto.PageResponse;
+import com.library.management.journal.CirculationJournal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/journal")
+public class JournalController {
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<Map<String, Object>>> getEntries(@RequestParam(required = false) String after,
+                                                                        @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(circulationJournal.getEntries(after, limit));
+    }
+}
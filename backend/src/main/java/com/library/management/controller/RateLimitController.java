@@ -0,0 +1,25 @@
+package com.library.management.controller;
+
+import com.library.management.security.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rate-limits")
+public class RateLimitController {
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(rateLimitFilter.getStats());
+    }
+}
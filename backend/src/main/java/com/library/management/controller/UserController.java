@@ -1,12 +1,18 @@
 package com.library.management.controller;
 
+import com.library.management.dto.ImportReport;
+import com.library.management.dto.PageResponse;
 import com.library.management.dto.UserDTO;
+import com.library.management.service.UserImportService;
 import com.library.management.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,11 +22,27 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     @GetMapping
+    public ResponseEntity<PageResponse<UserDTO>> getUsers(@RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userService.getUsers(after, limit));
+    }
+
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importUsers(InputStream body,
+                                                    @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                    @RequestParam(required = false) String format) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body, format != null ? format : contentType));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         return ResponseEntity.ok(userService.getUserById(id));
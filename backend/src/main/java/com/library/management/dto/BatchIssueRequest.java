@@ -0,0 +1,35 @@
+package com.library.management.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchIssueRequest {
+
+    @NotEmpty(message = "At least one book ID is required")
+    @Size(max = 50, message = "At most 50 books can be issued at once")
+    private List<@NotNull(message = "Book ID is required") Long> bookIds;
+
+    @NotBlank(message = "Member name is required")
+    private String memberName;
+
+    @NotBlank(message = "Member email is required")
+    @Email(message = "Invalid email format")
+    private String memberEmail;
+
+    private String memberType;
+
+    private String remarks;
+}
@@ -0,0 +1,31 @@
+package com.library.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResult {
+    private int succeeded;
+    private int failed;
+    private List<Item> items;
+
+    /**
+     * Outcome for one requested book (checkout) or issue (return), in request order.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long id;
+        private String status;
+        private String message;
+        private IssueDTO issue;
+    }
+}
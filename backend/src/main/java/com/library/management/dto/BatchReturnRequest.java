@@ -0,0 +1,22 @@
+package com.library.management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReturnRequest {
+
+    @NotEmpty(message = "At least one issue ID is required")
+    @Size(max = 50, message = "At most 50 books can be returned at once")
+    private List<@NotNull(message = "Issue ID is required") Long> issueIds;
+}
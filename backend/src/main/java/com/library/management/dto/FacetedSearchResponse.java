@@ -0,0 +1,21 @@
+package com.library.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedSearchResponse {
+    private List<BookDTO> items;
+    private long total;
+    private Map<String, Map<String, Long>> facets;
+    private String nextCursor;
+    private boolean hasMore;
+}
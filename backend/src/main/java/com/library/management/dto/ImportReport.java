@@ -0,0 +1,33 @@
+package com.library.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportReport {
+    private long totalRows;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String key;
+        private String status;
+        private String message;
+    }
+}
@@ -33,6 +33,8 @@ public class IssueDTO {
     @Email(message = "Invalid email format")
     private String memberEmail;
 
+    private String memberType;
+
     private String issueDate;
     private String dueDate;
     private String returnDate;
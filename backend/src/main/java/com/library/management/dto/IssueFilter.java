@@ -0,0 +1,26 @@
+package com.library.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional filters for GET /api/issues; unset fields do not restrict.
+ * Dates are ISO (yyyy-MM-dd) and ranges are inclusive. Status OVERDUE
+ * selects active issues due before today.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IssueFilter {
+    private String status;
+    private String memberEmail;
+    private Long userId;
+    private Long bookId;
+    private String dueFrom;
+    private String dueTo;
+    private String issuedFrom;
+    private String issuedTo;
+}
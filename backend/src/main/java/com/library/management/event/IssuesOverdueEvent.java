@@ -0,0 +1,17 @@
+package com.library.management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published when the date rolls over and active issues pass their due date.
+ */
+@Data
+@AllArgsConstructor
+public class IssuesOverdueEvent {
+    private LocalDate date;
+    private List<Long> issueIds;
+}
@@ -0,0 +1,12 @@
+package com.library.management.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class JobAlreadyRunningException extends RuntimeException {
+
+    public JobAlreadyRunningException(String message) {
+        super(message);
+    }
+}
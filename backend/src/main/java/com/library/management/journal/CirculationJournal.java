@@ -0,0 +1,619 @@
+package com.library.management.journal;
+
+import com.library.management.dto.PageResponse;
+import com.library.management.model.Book;
+import com.library.management.repository.ArchivedIssueRepository;
+import com.library.management.repository.BookRepository;
+import com.library.management.repository.IssueRepository;
+import com.library.management.util.CursorCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only journal of checkouts, returns and inventory changes, written
+ * as fixed-size records into memory-mapped segment files. The per-book state
+ * derived from it (copies, availability, borrow count) is kept in memory,
+ * snapshotted periodically, and rebuilt at startup from the last snapshot
+ * plus the records after it, so the search indexes and dashboard totals do
+ * not need to aggregate the issue tables.
+ *
+ * At startup the rebuilt state is checked against the database (book count
+ * and highest issue id). If the database changed without the journal, for
+ * example after a restore or on an in-memory database, the state is
+ * reseeded from the database and a new snapshot is written. Segments are
+ * kept as an audit trail; records are read back by sequence number with
+ * {@link #read}.
+ *
+ * Records reach the page cache on append and are forced to disk every
+ * {@code journal.flush-interval-ms}. A failed write never fails the caller,
+ * whose transaction has already committed: the derived state is still
+ * updated, further records are kept in memory only, and a marker file makes
+ * the next startup reseed from the database.
+ */
+@Component
+public class CirculationJournal {
+
+    // crc, type, seq, timestamp and three operands
+    static final int RECORD_SIZE = 48;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String DIRTY_FILE = "dirty";
+    private static final long SNAPSHOT_MAGIC = 0x4c4d534a524e4c31L;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(CirculationJournal.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${journal.dir:./data/journal}")
+    private String directory;
+
+    @Value("${journal.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    private Path dir;
+    private int recordsPerSegment;
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long activeFirstSeq;
+    private int activeCount;
+    private long nextSeq;
+    private boolean unflushed;
+    private boolean failed;
+    private State state = new State();
+    private long snapshotSeq;
+    private volatile boolean ready = false;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        recordsPerSegment = Math.max(1, segmentSize / RECORD_SIZE);
+        try {
+            dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            }
+
+            State loaded = readSnapshot();
+            state = loaded != null ? loaded : new State();
+            snapshotSeq = state.lastSeq;
+
+            // Replay every record after the snapshot; the last segment's valid length is the write position
+            long lastSeq = state.lastSeq;
+            int lastCount = 0;
+            for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+                Long following = segments.higherKey(segment.getKey());
+                if (following != null && following <= state.lastSeq + 1) {
+                    continue;
+                }
+                lastCount = scan(segment.getValue(), segment.getKey(), 0, Integer.MAX_VALUE, record -> {
+                    if (record.seq() > state.lastSeq) {
+                        state.apply(record);
+                    }
+                });
+                if (lastCount > 0) {
+                    lastSeq = Math.max(lastSeq, segment.getKey() + lastCount - 1);
+                }
+            }
+            nextSeq = lastSeq + 1;
+
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            if (last != null && last.getKey() + lastCount == nextSeq && lastCount < recordsPerSegment) {
+                map(last.getKey(), last.getValue(), lastCount);
+            } else {
+                map(nextSeq, segmentPath(nextSeq), 0);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open circulation journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Check the replayed state against the database and reseed it when they
+     * disagree. Runs before the indexes are built so they can use it.
+     * Besides the highest issue id, the totals of books, available copies,
+     * copies on loan and times issued must match, which catches a lost or
+     * doubled record without comparing book by book.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        long maxIssueId = databaseMaxIssueId();
+        long[] totals = databaseTotals();
+        boolean consistent;
+        synchronized (this) {
+            consistent = !Files.exists(dir.resolve(DIRTY_FILE))
+                    && state.maxIssueId == maxIssueId && Arrays.equals(state.totals(), totals);
+        }
+        if (!consistent) {
+            State seeded = seedFromDatabase(maxIssueId);
+            long[] seededTotals = seeded.totals();
+            if (seededTotals[2] != totals[2]) {
+                log.warn("Books show {} copies on loan but {} issues are open; the journal follows the books",
+                        seededTotals[2], totals[2]);
+            }
+            State copy;
+            synchronized (this) {
+                seeded.lastSeq = nextSeq - 1;
+                state = seeded;
+                copy = seeded.copy();
+            }
+            writeSnapshot(copy);
+            try {
+                Files.deleteIfExists(dir.resolve(DIRTY_FILE));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot clear journal dirty marker", e);
+            }
+        }
+        ready = true;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.force();
+            try {
+                activeChannel.close();
+            } catch (IOException ignored) {
+                // The mapping stays valid; nothing left to release
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void issued(Long issueId, Long bookId, long dueEpochDay) {
+        append(JournalRecord.Type.ISSUED, issueId, bookId, dueEpochDay);
+    }
+
+    public void returned(Long issueId, Long bookId, long fineCents) {
+        append(JournalRecord.Type.RETURNED, issueId, bookId, fineCents);
+    }
+
+    public void bookSaved(Book book) {
+        append(JournalRecord.Type.BOOK_SAVED, book.getId(), book.getQuantity(), book.getAvailableCopies());
+    }
+
+    /**
+     * Copies added to or removed from a book's stock; quantity and available
+     * copies both move by {@code copies}.
+     */
+    public void copiesAdjusted(Long bookId, long copies) {
+        append(JournalRecord.Type.COPIES_ADJUSTED, bookId, copies, 0);
+    }
+
+    public void bookDeleted(Long bookId) {
+        append(JournalRecord.Type.BOOK_DELETED, bookId, 0, 0);
+    }
+
+    /**
+     * Times each book has been issued, from the journal when it is ready and
+     * from the live and archived issue tables otherwise.
+     */
+    public Map<Long, Long> loadBorrowCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        if (ready) {
+            synchronized (this) {
+                state.books.forEach((bookId, book) -> {
+                    if (book[2] > 0) {
+                        counts.put(bookId, book[2]);
+                    }
+                });
+            }
+            return counts;
+        }
+        List<Object[]> rows = new ArrayList<>(issueRepository.countIssuesPerBook());
+        rows.addAll(archivedIssueRepository.countIssuesPerBook());
+        for (Object[] row : rows) {
+            counts.merge((Long) row[0], (Long) row[1], Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Total and in-stock book counts, or null while the journal is not ready.
+     */
+    public synchronized long[] getBookTotals() {
+        if (!ready) {
+            return null;
+        }
+        long available = state.books.values().stream().filter(book -> book[1] > 0).count();
+        return new long[]{state.books.size(), available};
+    }
+
+    /**
+     * A page of records in sequence order for the audit endpoint.
+     */
+    public PageResponse<Map<String, Object>> getEntries(String after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+        long afterSeq = after != null ? CursorCodec.decodeId(CursorCodec.decode(after, "seq", 1)[0]) : 0L;
+        List<JournalRecord> records = read(afterSeq, limit + 1);
+        boolean hasMore = records.size() > limit;
+        if (hasMore) {
+            records = records.subList(0, limit);
+        }
+        String nextCursor = hasMore
+                ? CursorCodec.encode("seq", Long.toString(records.get(records.size() - 1).seq()))
+                : null;
+        return PageResponse.<Map<String, Object>>builder()
+                .items(records.stream().map(JournalRecord::toMap).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
+    }
+
+    /**
+     * Up to {@code limit} records with sequence numbers after {@code afterSeq}.
+     */
+    public List<JournalRecord> read(long afterSeq, int limit) {
+        List<JournalRecord> records = new ArrayList<>(Math.min(limit, 256));
+        if (!enabled) {
+            return records;
+        }
+        long seq = afterSeq + 1;
+        Map.Entry<Long, Path> segment = segments.floorEntry(seq);
+        if (segment == null) {
+            segment = segments.firstEntry();
+            seq = segment != null ? segment.getKey() : seq;
+        }
+        try {
+            while (segment != null && records.size() < limit) {
+                int from = (int) Math.min(seq - segment.getKey(), recordsPerSegment);
+                scan(segment.getValue(), segment.getKey(), from, limit - records.size(), records::add);
+                segment = segments.higherEntry(segment.getKey());
+                if (segment != null) {
+                    seq = segment.getKey();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read circulation journal", e);
+        }
+        return records;
+    }
+
+    @Scheduled(fixedDelayString = "${journal.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (unflushed) {
+            active.force();
+            unflushed = false;
+        }
+    }
+
+    /**
+     * Write the derived state to a new snapshot file and swap it in atomically.
+     */
+    @Scheduled(fixedDelayString = "${journal.snapshot-interval-ms:300000}",
+            initialDelayString = "${journal.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        State copy;
+        synchronized (this) {
+            if (!ready || state.lastSeq == snapshotSeq) {
+                return;
+            }
+            copy = state.copy();
+        }
+        writeSnapshot(copy);
+    }
+
+    private void writeSnapshot(State copy) {
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32C());
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeLong(SNAPSHOT_MAGIC);
+            out.writeLong(copy.lastSeq);
+            out.writeLong(copy.maxIssueId);
+            out.writeInt(copy.books.size());
+            for (Map.Entry<Long, long[]> book : copy.books.entrySet()) {
+                out.writeLong(book.getKey());
+                out.writeLong(book.getValue()[0]);
+                out.writeLong(book.getValue()[1]);
+                out.writeLong(book.getValue()[2]);
+            }
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write journal snapshot", e);
+        }
+        try {
+            Files.move(temp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot replace journal snapshot", e);
+        }
+        synchronized (this) {
+            snapshotSeq = Math.max(snapshotSeq, copy.lastSeq);
+        }
+    }
+
+    private synchronized void append(JournalRecord.Type type, long a, long b, long c) {
+        if (!enabled) {
+            return;
+        }
+        JournalRecord record = new JournalRecord(nextSeq++, System.currentTimeMillis(), type, a, b, c);
+        state.apply(record);
+        if (failed) {
+            return;
+        }
+        try {
+            write(record);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            log.error("Circulation journal write failed at seq {}; later records are kept in memory only "
+                    + "and the journal is reseeded from the database on the next startup", record.seq(), e);
+            try {
+                Files.write(dir.resolve(DIRTY_FILE), new byte[0]);
+            } catch (IOException markerError) {
+                log.error("Cannot write journal dirty marker", markerError);
+            }
+        }
+    }
+
+    private void write(JournalRecord record) throws IOException {
+        if (activeCount == recordsPerSegment) {
+            roll(record.seq());
+        }
+        int position = activeCount * RECORD_SIZE;
+        active.putInt(position + 4, record.type().code)
+                .putLong(position + 8, record.seq())
+                .putLong(position + 16, record.timestamp())
+                .putLong(position + 24, record.a())
+                .putLong(position + 32, record.b())
+                .putLong(position + 40, record.c());
+        CRC32C crc = new CRC32C();
+        crc.update(active.slice(position + 4, RECORD_SIZE - 4));
+        active.putInt(position, (int) crc.getValue());
+        activeCount++;
+        unflushed = true;
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        active.force();
+        activeChannel.close();
+        map(firstSeq, segmentPath(firstSeq), 0);
+    }
+
+    private void map(long firstSeq, Path path, int count) throws IOException {
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        activeFirstSeq = firstSeq;
+        activeCount = count;
+        segments.put(firstSeq, path);
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Pass up to {@code limit} valid records from index {@code from} of a
+     * segment to the consumer. A bad checksum or out-of-sequence record marks
+     * the end of what was written. Returns the index after the last valid one.
+     */
+    private static int scan(Path path, long firstSeq, int from, int limit,
+                            Consumer<JournalRecord> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+        CRC32C crc = new CRC32C();
+        int index = from;
+        int passed = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = (long) from * RECORD_SIZE;
+            while (passed < limit) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < RECORD_SIZE) {
+                    return index;
+                }
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE && passed < limit) {
+                    int start = buffer.position();
+                    crc.reset();
+                    crc.update(buffer.slice(start + 4, RECORD_SIZE - 4));
+                    JournalRecord.Type type = JournalRecord.Type.of(buffer.getInt(start + 4));
+                    long seq = buffer.getLong(start + 8);
+                    if (buffer.getInt(start) != (int) crc.getValue() || type == null || seq != firstSeq + index) {
+                        return index;
+                    }
+                    consumer.accept(new JournalRecord(seq, buffer.getLong(start + 16), type,
+                            buffer.getLong(start + 24), buffer.getLong(start + 32), buffer.getLong(start + 40)));
+                    buffer.position(start + RECORD_SIZE);
+                    index++;
+                    passed++;
+                }
+                position += buffer.position();
+            }
+        }
+        return index;
+    }
+
+    private State readSnapshot() throws IOException {
+        Path path = dir.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path)), new CRC32C());
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readLong() != SNAPSHOT_MAGIC) {
+                return null;
+            }
+            State loaded = new State();
+            loaded.lastSeq = in.readLong();
+            loaded.maxIssueId = in.readLong();
+            int books = in.readInt();
+            for (int i = 0; i < books; i++) {
+                loaded.books.put(in.readLong(), new long[]{in.readLong(), in.readLong(), in.readLong()});
+            }
+            long expected = checked.getChecksum().getValue();
+            return in.readLong() == expected ? loaded : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private long databaseMaxIssueId() {
+        Long live = jdbcTemplate.queryForObject("SELECT MAX(id) FROM issue", Long.class);
+        Long archived = jdbcTemplate.queryForObject("SELECT MAX(id) FROM issue_archive", Long.class);
+        return Math.max(live != null ? live : 0L, archived != null ? archived : 0L);
+    }
+
+    /**
+     * Books, available copies, copies on loan and times issued, in the order of {@link State#totals}.
+     */
+    private long[] databaseTotals() {
+        Long available = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(available_copies), 0) FROM book", Long.class);
+        Long onLoan = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM issue WHERE status <> 'RETURNED'", Long.class);
+        Long live = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM issue", Long.class);
+        Long archived = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM issue_archive", Long.class);
+        return new long[]{bookRepository.count(), available, onLoan, live + archived};
+    }
+
+    private State seedFromDatabase(long maxIssueId) {
+        State seeded = new State();
+        seeded.maxIssueId = maxIssueId;
+        long afterId = 0L;
+        List<Book> batch;
+        do {
+            batch = bookRepository.findPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Book book : batch) {
+                seeded.books.put(book.getId(), new long[]{book.getQuantity(), book.getAvailableCopies(), 0});
+                afterId = book.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        List<Object[]> rows = new ArrayList<>(issueRepository.countIssuesPerBook());
+        rows.addAll(archivedIssueRepository.countIssuesPerBook());
+        for (Object[] row : rows) {
+            long[] book = seeded.books.get((Long) row[0]);
+            if (book != null) {
+                book[2] += (Long) row[1];
+            }
+        }
+        return seeded;
+    }
+
+    /**
+     * Per book: quantity, available copies and times issued. Records are
+     * appended in commit-callback order, not commit order, so changes are
+     * applied unclamped and end at the committed counts in any order.
+     */
+    private static final class State {
+        final Map<Long, long[]> books = new HashMap<>();
+        long lastSeq;
+        long maxIssueId;
+
+        void apply(JournalRecord record) {
+            switch (record.type()) {
+                case ISSUED -> {
+                    long[] book = books.computeIfAbsent(record.b(), id -> new long[3]);
+                    book[1]--;
+                    book[2]++;
+                    maxIssueId = Math.max(maxIssueId, record.a());
+                }
+                case RETURNED -> {
+                    long[] book = books.get(record.b());
+                    if (book != null) {
+                        book[1]++;
+                    }
+                }
+                case BOOK_SAVED -> {
+                    long[] book = books.computeIfAbsent(record.a(), id -> new long[3]);
+                    book[0] = record.b();
+                    book[1] = record.c();
+                }
+                case COPIES_ADJUSTED -> {
+                    long[] book = books.get(record.a());
+                    if (book != null) {
+                        book[0] += record.b();
+                        book[1] += record.b();
+                    }
+                }
+                case BOOK_DELETED -> books.remove(record.a());
+            }
+            lastSeq = record.seq();
+        }
+
+        /**
+         * Books, available copies, copies on loan and times issued.
+         */
+        long[] totals() {
+            long[] totals = {books.size(), 0, 0, 0};
+            for (long[] book : books.values()) {
+                totals[1] += book[1];
+                totals[2] += book[0] - book[1];
+                totals[3] += book[2];
+            }
+            return totals;
+        }
+
+        State copy() {
+            State copy = new State();
+            books.forEach((id, book) -> copy.books.put(id, book.clone()));
+            copy.lastSeq = lastSeq;
+            copy.maxIssueId = maxIssueId;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.library.management.journal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One fixed-size journal entry. The meaning of the three operands depends
+ * on the type:
+ * <ul>
+ *     <li>ISSUED: issue id, book id, due date as epoch day</li>
+ *     <li>RETURNED: issue id, book id, fine in paise</li>
+ *     <li>BOOK_SAVED: book id, quantity, available copies</li>
+ *     <li>BOOK_DELETED: book id</li>
+ *     <li>COPIES_ADJUSTED: book id, copies added (negative when removed)</li>
+ * </ul>
+ */
+public record JournalRecord(long seq, long timestamp, Type type, long a, long b, long c) {
+
+    public enum Type {
+        ISSUED(1), RETURNED(2), BOOK_SAVED(3), BOOK_DELETED(4), COPIES_ADJUSTED(5);
+
+        final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        static Type of(int code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Named fields for the audit API.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("seq", seq);
+        map.put("timestamp", Instant.ofEpochMilli(timestamp).toString());
+        map.put("type", type.name());
+        switch (type) {
+            case ISSUED -> {
+                map.put("issueId", a);
+                map.put("bookId", b);
+                map.put("dueDate", LocalDate.ofEpochDay(c).toString());
+            }
+            case RETURNED -> {
+                map.put("issueId", a);
+                map.put("bookId", b);
+                map.put("fineCents", c);
+            }
+            case BOOK_SAVED -> {
+                map.put("bookId", a);
+                map.put("quantity", b);
+                map.put("availableCopies", c);
+            }
+            case BOOK_DELETED -> map.put("bookId", a);
+            case COPIES_ADJUSTED -> {
+                map.put("bookId", a);
+                map.put("copies", b);
+            }
+        }
+        return map;
+    }
+}
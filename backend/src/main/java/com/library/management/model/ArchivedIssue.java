@@ -0,0 +1,71 @@
+package com.library.management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A returned issue moved out of the live {@code issue} table by the archive
+ * job. Rows keep their original id and are never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "issue_archive", indexes = {
+        @Index(name = "idx_archive_book_issue_date", columnList = "book_id, issue_date"),
+        @Index(name = "idx_archive_user_issue_date", columnList = "user_id, issue_date"),
+        @Index(name = "idx_archive_member_email_issue_date", columnList = "member_email, issue_date"),
+        @Index(name = "idx_archive_due_date", columnList = "due_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedIssue {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private String memberName;
+
+    @Column(nullable = false)
+    private String memberEmail;
+
+    @Column(length = 50)
+    private String memberType;
+
+    @Column(nullable = false)
+    private LocalDate issueDate;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    private LocalDate returnDate;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal fine;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Issue.IssueStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String remarks;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime archivedAt;
+}
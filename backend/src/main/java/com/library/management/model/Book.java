@@ -5,12 +5,16 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Only changed columns are written, so saving a book never overwrites
+// availableCopies maintained by the guarded updates in BookRepository
 @Entity
+@DynamicUpdate
 @Table(name = "book", indexes = {
         @Index(name = "idx_isbn", columnList = "isbn"),
         @Index(name = "idx_title", columnList = "title"),
@@ -14,8 +14,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "issue", indexes = {
-        @Index(name = "idx_book_id", columnList = "book_id"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_book_issue_date", columnList = "book_id, issue_date"),
+        @Index(name = "idx_user_issue_date", columnList = "user_id, issue_date"),
+        @Index(name = "idx_member_email_issue_date", columnList = "member_email, issue_date"),
+        @Index(name = "idx_status_due_date", columnList = "status, due_date")
 })
 @Data
 @NoArgsConstructor
@@ -44,6 +46,10 @@ public class Issue {
     @Column(nullable = false)
     private String memberEmail;
 
+    // Borrower category used to pick loan and fine rules, e.g. STUDENT or FACULTY
+    @Column(length = 50)
+    private String memberType;
+
     @NotNull
     @Column(nullable = false)
     private LocalDate issueDate;
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -49,6 +50,12 @@ public class User {
     @Column(nullable = false)
     private Boolean isActive = true;
 
+    // Bumped whenever tokens issued so far must stop working
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,31 @@
+package com.library.management.repository;
+
+import com.library.management.model.ArchivedIssue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedIssueRepository extends JpaRepository<ArchivedIssue, Long> {
+
+    @Query("SELECT a FROM ArchivedIssue a JOIN FETCH a.book JOIN FETCH a.user ORDER BY a.id")
+    List<ArchivedIssue> findAllWithBookAndUser();
+
+    @Query("SELECT a FROM ArchivedIssue a JOIN FETCH a.book JOIN FETCH a.user WHERE a.id = :id")
+    Optional<ArchivedIssue> findWithBookAndUserById(@Param("id") Long id);
+
+    @Query("SELECT a FROM ArchivedIssue a JOIN FETCH a.book JOIN FETCH a.user WHERE a.id IN :ids")
+    List<ArchivedIssue> findAllWithBookAndUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.updatedAt FROM ArchivedIssue a WHERE a.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT a.book.id, COUNT(a) FROM ArchivedIssue a GROUP BY a.book.id")
+    List<Object[]> countIssuesPerBook();
+}
@@ -1,11 +1,15 @@
 package com.library.management.repository;
 
 import com.library.management.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,14 +18,55 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     Optional<Book> findByIsbn(String isbn);
 
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
     @Query("SELECT b FROM Book b WHERE " +
             "LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(b.author) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(b.isbn) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(b.category) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Book> searchBooks(@Param("keyword") String keyword);
+            "LOWER(b.category) LIKE LOWER(CONCAT('%', :keyword, '%')) ORDER BY b.id")
+    List<Book> searchBooks(@Param("keyword") String keyword, Pageable pageable);
 
     List<Book> findByCategory(String category);
 
     boolean existsByIsbn(String isbn);
+
+    @Query("SELECT b.isbn, b.id FROM Book b WHERE b.isbn IN :isbns")
+    List<Object[]> findIdsByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    long countByAvailableCopiesGreaterThan(Integer availableCopies);
+
+    @Query("SELECT b FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Book> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b FROM Book b ORDER BY b.title, b.id")
+    List<Book> findFirstPageByTitle(Pageable pageable);
+
+    @Query("SELECT b FROM Book b WHERE b.title >= :title AND (b.title > :title OR b.id > :afterId) " +
+            "ORDER BY b.title, b.id")
+    List<Book> findPageAfterTitle(@Param("title") String title, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.availableCopies > 0")
+    int decrementAvailableCopies(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.availableCopies < b.quantity")
+    int incrementAvailableCopies(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Copies on loan stay on loan: available copies shift by the change in quantity.
+    // Only applies while the quantity is still the one the caller read
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + (:quantity - b.quantity), " +
+            "b.quantity = :quantity, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.quantity = :previous " +
+            "AND b.availableCopies + (:quantity - b.quantity) >= 0")
+    int adjustQuantity(@Param("id") Long id, @Param("previous") Integer previous,
+                       @Param("quantity") Integer quantity, @Param("now") LocalDateTime now);
 }
@@ -2,10 +2,17 @@ package com.library.management.repository;
 
 import com.library.management.model.Issue;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface IssueRepository extends JpaRepository<Issue, Long> {
@@ -18,15 +25,41 @@ public interface IssueRepository extends JpaRepository<Issue, Long> {
 
     List<Issue> findByMemberEmail(String memberEmail);
 
-    @Query("SELECT i FROM Issue i WHERE i.status = 'ISSUED' AND i.dueDate < CURRENT_DATE")
+    // Book and user are fetched in the same statement; IssueDTO needs both
+    @Query("SELECT i FROM Issue i JOIN FETCH i.book JOIN FETCH i.user")
+    List<Issue> findAllWithBookAndUser();
+
+    @Query("SELECT i FROM Issue i JOIN FETCH i.book JOIN FETCH i.user WHERE i.id = :id")
+    Optional<Issue> findWithBookAndUserById(@Param("id") Long id);
+
+    @Query("SELECT i FROM Issue i JOIN FETCH i.book JOIN FETCH i.user WHERE i.id IN :ids")
+    List<Issue> findAllWithBookAndUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i FROM Issue i JOIN FETCH i.book JOIN FETCH i.user " +
+            "WHERE i.status = 'ISSUED' AND i.dueDate < CURRENT_DATE")
     List<Issue> findOverdueIssues();
 
-    @Query("SELECT i FROM Issue i WHERE i.status = 'ISSUED'")
+    @Query("SELECT i FROM Issue i JOIN FETCH i.book JOIN FETCH i.user WHERE i.status = 'ISSUED'")
     List<Issue> findActiveIssues();
 
+    @Modifying
+    @Query("UPDATE Issue i SET i.status = 'RETURNED', i.returnDate = :returnDate, i.fine = :fine, " +
+            "i.updatedAt = :now WHERE i.id = :id AND i.status <> 'RETURNED'")
+    int markReturned(@Param("id") Long id, @Param("returnDate") LocalDate returnDate,
+                     @Param("fine") BigDecimal fine, @Param("now") LocalDateTime now);
+
+    @Query("SELECT i.updatedAt FROM Issue i WHERE i.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT i.id, i.dueDate FROM Issue i WHERE i.status = 'ISSUED'")
+    List<Object[]> findActiveDueDates();
+
     @Query("SELECT COUNT(i) FROM Issue i WHERE i.status = 'ISSUED'")
     long countActiveIssues();
 
     @Query("SELECT COUNT(i) FROM Issue i WHERE i.status = 'ISSUED' AND i.dueDate < CURRENT_DATE")
     long countOverdueIssues();
+
+    @Query("SELECT i.book.id, COUNT(i) FROM Issue i GROUP BY i.book.id")
+    List<Object[]> countIssuesPerBook();
 }
@@ -0,0 +1,36 @@
+package com.library.management.search;
+
+import com.library.management.model.Book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Pluggable catalog search. Implementations are selected with the
+ * {@code search.engine} property ({@code index} or {@code sql}).
+ */
+public interface BookSearchEngine {
+
+    /**
+     * Return at most {@code limit} books matching the keyword, best matches first.
+     */
+    List<Book> search(String keyword, int limit);
+
+    /**
+     * Return ids of at most {@code limit} matching books, best matches first.
+     */
+    default List<Long> searchIds(String keyword, int limit) {
+        return search(keyword, limit).stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    default void onBookSaved(Book book) {
+    }
+
+    default void onBooksSaved(Collection<Book> books) {
+        books.forEach(this::onBookSaved);
+    }
+
+    default void onBookDeleted(Long bookId) {
+    }
+}
@@ -0,0 +1,294 @@
+package com.library.management.search;
+
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of books per facet value (category, publisher,
+ * publication-year bucket and current availability). Books get dense
+ * document numbers; filtering is a bitmap intersection and facet counts are
+ * intersection cardinalities, so no GROUP BY runs per request.
+ */
+@Component
+public class FacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String PUBLISHER = "publisher";
+    public static final String YEAR_BUCKET = "yearBucket";
+    public static final String AVAILABLE = "available";
+    public static final List<String> FACETS = List.of(CATEGORY, PUBLISHER, YEAR_BUCKET, AVAILABLE);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${facets.year-bucket-size:10}")
+    private int yearBucketSize;
+
+    @Value("${facets.max-values:50}")
+    private int maxValues;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            docIds.clear();
+            docs.clear();
+            live.clear();
+
+            long afterId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Book book : batch) {
+                    put(book, false);
+                    afterId = book.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            bitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+            live.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onBookSaved(Book book) {
+        onBooksSaved(List.of(book));
+    }
+
+    public void onBooksSaved(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            books.forEach(book -> put(book, false));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-index an edited book's details but keep the indexed copy count,
+     * which checkouts and returns committing around the edit also move;
+     * a change in copies is applied with {@link #onCopiesChanged}.
+     */
+    public void onBookEdited(Book book) {
+        lock.writeLock().lock();
+        try {
+            put(book, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onBookDeleted(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.remove(bookId);
+            if (docId != null) {
+                unindex(docId, docs.get(docId).values);
+                docs.set(docId, null);
+                live.remove(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change in available copies from a checkout, return or restock.
+     * Returns +1 if the book came back into stock, -1 if it ran out,
+     * otherwise 0. Changes arrive in commit-callback order rather than commit
+     * order, so the count is not clamped: it may dip below zero in between
+     * and still end where the database does.
+     */
+    public int onCopiesChanged(Long bookId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.get(bookId);
+            if (docId == null) {
+                return 0;
+            }
+            Doc doc = docs.get(docId);
+            doc.availableCopies += delta;
+            String available = String.valueOf(doc.availableCopies > 0);
+            if (!available.equals(doc.values[3])) {
+                String[] values = doc.values.clone();
+                values[3] = available;
+                unindex(docId, doc.values);
+                index(docId, values);
+                doc.values = values;
+                return doc.availableCopies > 0 ? 1 : -1;
+            }
+            return 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return matching book ids in index order with drill-down counts for
+     * every facet. {@code restrictTo}, when not null, limits matches to
+     * those books (e.g. keyword search results).
+     */
+    public Result query(Map<String, String> filters, Collection<Long> restrictTo, Integer afterDocId, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = live.clone();
+            if (restrictTo != null) {
+                RoaringBitmap restricted = new RoaringBitmap();
+                for (Long bookId : restrictTo) {
+                    Integer docId = docIds.get(bookId);
+                    if (docId != null) {
+                        restricted.add(docId);
+                    }
+                }
+                matches.and(restricted);
+            }
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                RoaringBitmap values = bitmaps.getOrDefault(filter.getKey(), Collections.emptyMap()).get(filter.getValue());
+                if (values == null) {
+                    matches.clear();
+                    break;
+                }
+                matches.and(values);
+            }
+
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                counts.put(facet, count(facet, matches));
+            }
+
+            List<Long> bookIds = new ArrayList<>(limit);
+            PeekableIntIterator it = matches.getIntIterator();
+            if (afterDocId != null) {
+                it.advanceIfNeeded(afterDocId + 1);
+            }
+            int lastDocId = -1;
+            while (it.hasNext() && bookIds.size() < limit) {
+                lastDocId = it.next();
+                bookIds.add(docs.get(lastDocId).bookId);
+            }
+            Integer nextDocId = it.hasNext() ? lastDocId : null;
+
+            return new Result(matches.getLongCardinality(), counts, bookIds, nextDocId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Long> count(String facet, RoaringBitmap matches) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        bitmaps.getOrDefault(facet, Collections.emptyMap()).forEach((value, docsWithValue) -> {
+            long count = RoaringBitmap.andCardinality(docsWithValue, matches);
+            if (count > 0) {
+                entries.add(Map.entry(value, count));
+            }
+        });
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size() && i < maxValues; i++) {
+            counts.put(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        return counts;
+    }
+
+    private void put(Book book, boolean keepCopies) {
+        Integer docId = docIds.get(book.getId());
+        int availableCopies = keepCopies && docId != null ? docs.get(docId).availableCopies
+                : book.getAvailableCopies() != null ? book.getAvailableCopies() : 0;
+        String[] values = {
+                book.getCategory(),
+                book.getPublisher(),
+                yearBucket(book.getPublicationYear()),
+                String.valueOf(availableCopies > 0)
+        };
+
+        if (docId == null) {
+            docId = docs.size();
+            docIds.put(book.getId(), docId);
+            docs.add(new Doc(book.getId(), values, availableCopies));
+            live.add(docId);
+        } else {
+            Doc doc = docs.get(docId);
+            unindex(docId, doc.values);
+            doc.values = values;
+            doc.availableCopies = availableCopies;
+        }
+        index(docId, values);
+    }
+
+    private void index(int docId, String[] values) {
+        for (int i = 0; i < FACETS.size(); i++) {
+            if (values[i] != null) {
+                bitmaps.computeIfAbsent(FACETS.get(i), k -> new HashMap<>())
+                        .computeIfAbsent(values[i], k -> new RoaringBitmap())
+                        .add(docId);
+            }
+        }
+    }
+
+    private void unindex(int docId, String[] values) {
+        for (int i = 0; i < FACETS.size(); i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            Map<String, RoaringBitmap> facet = bitmaps.get(FACETS.get(i));
+            RoaringBitmap docsWithValue = facet.get(values[i]);
+            docsWithValue.remove(docId);
+            if (docsWithValue.isEmpty()) {
+                facet.remove(values[i]);
+            }
+        }
+    }
+
+    private String yearBucket(Integer year) {
+        if (year == null) {
+            return null;
+        }
+        int start = year - Math.floorMod(year, yearBucketSize);
+        return start + "-" + (start + yearBucketSize - 1);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Result {
+        private long total;
+        private Map<String, Map<String, Long>> counts;
+        private List<Long> bookIds;
+        private Integer nextDocId;
+    }
+
+    private static final class Doc {
+        final Long bookId;
+        String[] values;
+        int availableCopies;
+
+        Doc(Long bookId, String[] values, int availableCopies) {
+            this.bookId = bookId;
+            this.values = values;
+            this.availableCopies = availableCopies;
+        }
+    }
+}
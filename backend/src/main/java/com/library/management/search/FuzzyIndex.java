@@ -0,0 +1,275 @@
+package com.library.management.search;
+
+import com.library.management.journal.CirculationJournal;
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Typo-tolerant lookup over title and author words. Distinct words form a
+ * BK-tree keyed by Levenshtein distance, so a query only visits subtrees
+ * whose edge distance is within the bound of its own distance to the node.
+ * Every query word must match some word of a book; books are ranked by the
+ * summed distance, then by borrow count.
+ */
+@Component
+public class FuzzyIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Rebuild the tree once at least this many words no longer belong to any book
+    private static final int MIN_DEAD_TERMS_TO_COMPACT = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
+    @Value("${search.fuzzy.max-distance:2}")
+    private int maxDistance;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> books = new HashMap<>();
+    private final Map<Long, Long> borrowCounts = new HashMap<>();
+    private Node root;
+    private int treeSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            books.clear();
+            borrowCounts.clear();
+            root = null;
+            treeSize = 0;
+
+            borrowCounts.putAll(circulationJournal.loadBorrowCounts());
+
+            long afterId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Book book : batch) {
+                    add(book);
+                    afterId = book.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return ids of at most {@code limit} books whose title or author words
+     * are all within the edit distance bound of the query words, closest and
+     * most borrowed first.
+     */
+    public List<Long> search(String keyword, int limit) {
+        Set<String> words = InvertedIndexSearchEngine.tokenize(keyword.toLowerCase(Locale.ROOT));
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> distances = null;
+            for (String word : words) {
+                Map<Long, Integer> matches = match(word);
+                if (distances == null) {
+                    distances = matches;
+                } else {
+                    distances.keySet().retainAll(matches.keySet());
+                    distances.replaceAll((id, distance) -> distance + matches.get(id));
+                }
+                if (distances.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            Comparator<Map.Entry<Long, Integer>> ranking = Map.Entry.comparingByValue();
+            return distances.entrySet().stream()
+                    .sorted(ranking
+                            .thenComparing(e -> borrowCounts.getOrDefault(e.getKey(), 0L), Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onBookSaved(Book book) {
+        onBooksSaved(List.of(book));
+    }
+
+    public void onBooksSaved(Collection<Book> saved) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : saved) {
+                remove(book.getId());
+                add(book);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onBookDeleted(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            remove(bookId);
+            borrowCounts.remove(bookId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onBookBorrowed(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            borrowCounts.merge(bookId, 1L, Long::sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best distance per book for one query word. Short words allow fewer
+     * edits so that "cat" does not match every three-letter word.
+     */
+    private Map<Long, Integer> match(String word) {
+        int bound = Math.min(maxDistance, word.length() <= 2 ? 0 : word.length() <= 4 ? 1 : maxDistance);
+        Map<Long, Integer> result = new HashMap<>();
+        if (root == null) {
+            return result;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = levenshtein(word, node.term);
+            if (distance <= bound) {
+                for (Long id : postings.getOrDefault(node.term, Collections.emptySet())) {
+                    result.merge(id, distance, Math::min);
+                }
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= bound) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    private void add(Book book) {
+        Set<String> words = InvertedIndexSearchEngine.tokenize(
+                normalize(book.getTitle()), normalize(book.getAuthor()));
+        books.put(book.getId(), words);
+        for (String word : words) {
+            Set<Long> ids = postings.get(word);
+            if (ids == null) {
+                ids = new HashSet<>(2);
+                postings.put(word, ids);
+                insert(word);
+            }
+            ids.add(book.getId());
+        }
+    }
+
+    /**
+     * Words left without books stay in the tree, which has no cheap delete,
+     * and are skipped by lookups until the next compaction.
+     */
+    private void remove(Long bookId) {
+        Set<String> words = books.remove(bookId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<Long> ids = postings.get(word);
+            if (ids != null && ids.remove(bookId) && ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    private void insert(String word) {
+        if (root == null) {
+            root = new Node(word);
+            treeSize++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = levenshtein(word, node.term);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                treeSize++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private void compactIfNeeded() {
+        int dead = treeSize - postings.size();
+        if (dead >= MIN_DEAD_TERMS_TO_COMPACT && dead > postings.size()) {
+            root = null;
+            treeSize = 0;
+            postings.keySet().forEach(this::insert);
+        }
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static final class Node {
+        final String term;
+        final Map<Integer, Node> children = new HashMap<>(4);
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.library.management.search;
+
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over title, author, ISBN and category.
+ * Whole tokens and their trigrams are indexed; a query narrows candidates
+ * through the postings and each candidate is verified against the stored
+ * field text, so matches are the same as the SQL LIKE query but ranked.
+ * Both engines stop at the caller's limit; above that the index keeps the
+ * best ranked books and the SQL engine the lowest ids.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexSearchEngine implements BookSearchEngine {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Weights for title, author, isbn, category
+    private static final int[] FIELD_WEIGHTS = {4, 3, 2, 1};
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final Map<String, Set<Long>> tokenPostings = new HashMap<>();
+    private final Map<String, Set<Long>> gramPostings = new HashMap<>();
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokenPostings.clear();
+            gramPostings.clear();
+
+            long afterId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Book book : batch) {
+                    add(book);
+                    afterId = book.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Book> search(String keyword, int limit) {
+        if (!ready) {
+            return bookRepository.searchBooks(keyword, PageRequest.of(0, limit));
+        }
+
+        List<Long> ids = searchIds(keyword, limit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> searchIds(String keyword, int limit) {
+        if (!ready) {
+            return BookSearchEngine.super.searchIds(keyword, limit);
+        }
+
+        lock.readLock().lock();
+        try {
+            return rank(keyword.toLowerCase(Locale.ROOT).trim(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookSaved(Book book) {
+        lock.writeLock().lock();
+        try {
+            remove(book.getId());
+            add(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBooksSaved(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                remove(book.getId());
+                add(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookDeleted(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> rank(String needle, int limit) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Long id : candidates(needle)) {
+            int score = score(documents.get(id), needle);
+            if (score > 0) {
+                scores.put(id, score);
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private Collection<Long> candidates(String needle) {
+        Set<Long> result = null;
+        for (String token : tokenize(needle)) {
+            Set<Long> postings = token.length() < GRAM_SIZE ? tokensContaining(token) : gramMatches(token);
+            if (result == null) {
+                result = new HashSet<>(postings);
+            } else {
+                result.retainAll(postings);
+            }
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        // No alphanumeric characters in the query: every document is a candidate
+        return result != null ? result : documents.keySet();
+    }
+
+    private Set<Long> gramMatches(String token) {
+        Set<Long> result = null;
+        for (String gram : grams(token)) {
+            Set<Long> postings = gramPostings.get(gram);
+            if (postings == null) {
+                return Collections.emptySet();
+            }
+            if (result == null) {
+                result = new HashSet<>(postings);
+            } else {
+                result.retainAll(postings);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Set<Long> tokensContaining(String fragment) {
+        Set<Long> result = new HashSet<>();
+        tokenPostings.forEach((token, postings) -> {
+            if (token.contains(fragment)) {
+                result.addAll(postings);
+            }
+        });
+        return result;
+    }
+
+    private int score(String[] fields, String needle) {
+        int score = 0;
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i];
+            int at = field.indexOf(needle);
+            if (at < 0) {
+                continue;
+            }
+            int fieldScore = FIELD_WEIGHTS[i];
+            if (at == 0 || !Character.isLetterOrDigit(field.charAt(at - 1))) {
+                fieldScore *= 2;
+            }
+            if (field.length() == needle.length()) {
+                fieldScore *= 2;
+            }
+            score += fieldScore;
+        }
+        return score;
+    }
+
+    private void add(Book book) {
+        String[] fields = {
+                normalize(book.getTitle()),
+                normalize(book.getAuthor()),
+                normalize(book.getIsbn()),
+                normalize(book.getCategory())
+        };
+        documents.put(book.getId(), fields);
+        for (String token : tokenize(fields)) {
+            tokenPostings.computeIfAbsent(token, k -> new HashSet<>()).add(book.getId());
+            for (String gram : grams(token)) {
+                gramPostings.computeIfAbsent(gram, k -> new HashSet<>()).add(book.getId());
+            }
+        }
+    }
+
+    private void remove(Long bookId) {
+        String[] fields = documents.remove(bookId);
+        if (fields == null) {
+            return;
+        }
+        for (String token : tokenize(fields)) {
+            removePosting(tokenPostings, token, bookId);
+            for (String gram : grams(token)) {
+                removePosting(gramPostings, gram, bookId);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String term, Long bookId) {
+        Set<Long> ids = postings.get(term);
+        if (ids != null && ids.remove(bookId) && ids.isEmpty()) {
+            postings.remove(term);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    static Set<String> tokenize(String... values) {
+        Set<String> tokens = new HashSet<>();
+        for (String value : values) {
+            int start = -1;
+            for (int i = 0; i <= value.length(); i++) {
+                boolean alnum = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+                if (alnum && start < 0) {
+                    start = i;
+                } else if (!alnum && start >= 0) {
+                    tokens.add(value.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
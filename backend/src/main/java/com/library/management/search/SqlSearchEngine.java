@@ -0,0 +1,27 @@
+package com.library.management.search;
+
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fallback engine that runs the LIKE query in {@link BookRepository#searchBooks},
+ * returning the lowest ids first.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "sql")
+public class SqlSearchEngine implements BookSearchEngine {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Override
+    public List<Book> search(String keyword, int limit) {
+        return bookRepository.searchBooks(keyword, PageRequest.of(0, limit));
+    }
+}
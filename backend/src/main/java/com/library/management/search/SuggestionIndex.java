@@ -0,0 +1,505 @@
+package com.library.management.search;
+
+import com.library.management.dto.SuggestionDTO;
+import com.library.management.journal.CirculationJournal;
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Radix trie over book titles and authors for typeahead.
+ * Every word-start suffix of a phrase is inserted, so completions also match
+ * inner words. Edges are labelled with a range of the phrase they came from
+ * rather than a copied string, so the trie holds at most two nodes per key
+ * however long the phrases are. Each node caches the best completions of its
+ * subtree, ranked by borrow count and bounded by {@code suggest.max-results},
+ * so a lookup is a walk down the prefix followed by returning the cached list.
+ */
+@Component
+public class SuggestionIndex {
+
+    public static final String TYPE_TITLE = "TITLE";
+    public static final String TYPE_AUTHOR = "AUTHOR";
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong((Suggestion s) -> s.weight).reversed()
+            .thenComparing(s -> s.normalized);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
+    @Value("${suggest.max-results:10}")
+    private int maxResults;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("", 0, 0);
+    private final Map<Long, String[]> books = new HashMap<>();
+    private final Map<Long, Long> borrowCounts = new HashMap<>();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root.children = NO_CHILDREN;
+            root.terminals = NO_SUGGESTIONS;
+            root.top = NO_SUGGESTIONS;
+            books.clear();
+            borrowCounts.clear();
+            suggestions.clear();
+
+            borrowCounts.putAll(circulationJournal.loadBorrowCounts());
+
+            long afterId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Book book : batch) {
+                    add(book, null);
+                    afterId = book.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            recomputeAll(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            return Arrays.stream(node.top)
+                    .limit(limit)
+                    .map(s -> SuggestionDTO.builder()
+                            .text(s.text)
+                            .type(s.type)
+                            .borrowCount(s.weight)
+                            .build())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void onBookSaved(Book book) {
+        onBooksSaved(List.of(book));
+    }
+
+    /**
+     * Apply a batch of saved books, recomputing each affected trie node once.
+     */
+    public void onBooksSaved(Collection<Book> saved) {
+        lock.writeLock().lock();
+        try {
+            Set<String> touched = new HashSet<>();
+            for (Book book : saved) {
+                remove(book.getId(), touched);
+                add(book, touched);
+            }
+            refresh(touched);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onBookDeleted(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            Set<String> touched = new HashSet<>();
+            remove(bookId, touched);
+            borrowCounts.remove(bookId);
+            refresh(touched);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onBookBorrowed(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            borrowCounts.merge(bookId, 1L, Long::sum);
+            String[] fields = books.get(bookId);
+            if (fields == null) {
+                return;
+            }
+            Set<String> touched = new HashSet<>();
+            for (Suggestion s : suggestionsOf(fields)) {
+                s.weight++;
+                touched.add(s.normalized);
+            }
+            refresh(touched);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Book book, Set<String> touched) {
+        String[] fields = {book.getTitle(), book.getAuthor()};
+        books.put(book.getId(), fields);
+        attach(TYPE_TITLE, fields[0], book.getId(), touched);
+        attach(TYPE_AUTHOR, fields[1], book.getId(), touched);
+    }
+
+    private void remove(Long bookId, Set<String> touched) {
+        String[] fields = books.remove(bookId);
+        if (fields == null) {
+            return;
+        }
+        detach(TYPE_TITLE, fields[0], bookId, touched);
+        detach(TYPE_AUTHOR, fields[1], bookId, touched);
+    }
+
+    /**
+     * Add a book to a suggestion. Phrases whose keys need their cached
+     * completions recomputed are collected in {@code touched} unless it is null.
+     */
+    private void attach(String type, String text, Long bookId, Set<String> touched) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        Suggestion s = suggestions.get(type + ':' + normalized);
+        if (s == null) {
+            s = new Suggestion(text, type, normalized);
+            suggestions.put(type + ':' + normalized, s);
+            for (int from : keyStarts(normalized)) {
+                insert(normalized, from, s);
+            }
+        }
+        if (s.bookIds.add(bookId)) {
+            s.weight += borrowCounts.getOrDefault(bookId, 0L);
+        }
+        if (touched != null) {
+            touched.add(normalized);
+        }
+    }
+
+    private void detach(String type, String text, Long bookId, Set<String> touched) {
+        String normalized = normalize(text);
+        Suggestion s = suggestions.get(type + ':' + normalized);
+        if (s == null || !s.bookIds.remove(bookId)) {
+            return;
+        }
+
+        s.weight -= borrowCounts.getOrDefault(bookId, 0L);
+        if (s.bookIds.isEmpty()) {
+            suggestions.remove(type + ':' + normalized);
+            for (int from : keyStarts(normalized)) {
+                delete(normalized, from, s);
+            }
+        }
+        touched.add(normalized);
+    }
+
+    private List<Suggestion> suggestionsOf(String[] fields) {
+        List<Suggestion> result = new ArrayList<>(2);
+        Suggestion title = suggestions.get(TYPE_TITLE + ':' + normalize(fields[0]));
+        Suggestion author = suggestions.get(TYPE_AUTHOR + ':' + normalize(fields[1]));
+        if (title != null) {
+            result.add(title);
+        }
+        if (author != null) {
+            result.add(author);
+        }
+        return result;
+    }
+
+    /**
+     * Insert the key {@code text[from..]}, splitting an edge where the key
+     * leaves it part way.
+     */
+    private void insert(String text, int from, Suggestion s) {
+        Node node = root;
+        int i = from;
+        while (i < text.length()) {
+            int at = childIndex(node, text.charAt(i));
+            if (at < 0) {
+                Node leaf = new Node(text, i, text.length());
+                leaf.terminals = new Suggestion[]{s};
+                node.children = insertChild(node.children, -at - 1, leaf);
+                return;
+            }
+            Node child = node.children[at];
+            int common = child.commonPrefix(text, i);
+            if (common < child.length()) {
+                Node split = new Node(child.text, child.start, child.start + common);
+                child.start += common;
+                split.children = new Node[]{child};
+                node.children[at] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+        if (!Arrays.asList(node.terminals).contains(s)) {
+            node.terminals = append(node.terminals, s);
+        }
+    }
+
+    /**
+     * Remove the key {@code text[from..]}, dropping nodes that no longer lead
+     * anywhere and folding a node left with a single child into that child.
+     */
+    private void delete(String text, int from, Suggestion s) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = from;
+        while (i < text.length()) {
+            int at = childIndex(node, text.charAt(i));
+            if (at < 0 || node.children[at].commonPrefix(text, i) < node.children[at].length()) {
+                return;
+            }
+            node = node.children[at];
+            i += node.length();
+            path.add(node);
+        }
+        node.terminals = without(node.terminals, s);
+
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node current = path.get(depth);
+            Node parent = path.get(depth - 1);
+            if (current.terminals.length > 0 || current.children.length > 1) {
+                break;
+            }
+            int at = childIndex(parent, current.first());
+            if (current.children.length == 0) {
+                parent.children = removeChild(parent.children, at);
+            } else {
+                Node only = current.children[0];
+                only.start -= current.length();
+                parent.children[at] = only;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Recompute cached completions on the path of every touched phrase key,
+     * deepest first.
+     */
+    private void refresh(Set<String> phrases) {
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        for (String phrase : phrases) {
+            for (int from : keyStarts(phrase)) {
+                Node node = root;
+                int depth = 0;
+                depths.put(root, 0);
+                int i = from;
+                while (i < phrase.length()) {
+                    int at = childIndex(node, phrase.charAt(i));
+                    if (at < 0 || node.children[at].commonPrefix(phrase, i) < node.children[at].length()) {
+                        break;
+                    }
+                    node = node.children[at];
+                    i += node.length();
+                    depths.put(node, ++depth);
+                }
+            }
+        }
+
+        List<Map.Entry<Node, Integer>> ordered = new ArrayList<>(depths.entrySet());
+        ordered.sort(Map.Entry.<Node, Integer>comparingByValue().reversed());
+        for (Map.Entry<Node, Integer> entry : ordered) {
+            recompute(entry.getKey());
+        }
+    }
+
+    /**
+     * The node whose subtree holds every key starting with the prefix, which
+     * may end part way along its edge.
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int at = childIndex(node, prefix.charAt(i));
+            if (at < 0) {
+                return null;
+            }
+            node = node.children[at];
+            int common = node.commonPrefix(prefix, i);
+            if (common < node.length() && i + common < prefix.length()) {
+                return null;
+            }
+            i += common;
+        }
+        return node;
+    }
+
+    private void recomputeAll(Node node) {
+        for (Node child : node.children) {
+            recomputeAll(child);
+        }
+        recompute(node);
+    }
+
+    private void recompute(Node node) {
+        List<Suggestion> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(RANKING);
+
+        // A suggestion reachable through several children appears more than once
+        List<Suggestion> top = new ArrayList<>(Math.min(maxResults, candidates.size()));
+        for (Suggestion candidate : candidates) {
+            if (top.size() == maxResults) {
+                break;
+            }
+            if (!top.contains(candidate)) {
+                top.add(candidate);
+            }
+        }
+        node.top = top.toArray(NO_SUGGESTIONS);
+    }
+
+    // Children are kept sorted by the first character of their edge
+    private static int childIndex(Node node, char c) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = node.children[mid].first();
+            if (first < c) {
+                low = mid + 1;
+            } else if (first > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static Node[] insertChild(Node[] children, int at, Node child) {
+        Node[] result = new Node[children.length + 1];
+        System.arraycopy(children, 0, result, 0, at);
+        result[at] = child;
+        System.arraycopy(children, at, result, at + 1, children.length - at);
+        return result;
+    }
+
+    private static Node[] removeChild(Node[] children, int at) {
+        if (children.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] result = new Node[children.length - 1];
+        System.arraycopy(children, 0, result, 0, at);
+        System.arraycopy(children, at + 1, result, at, children.length - at - 1);
+        return result;
+    }
+
+    private static Suggestion[] append(Suggestion[] suggestions, Suggestion s) {
+        Suggestion[] result = Arrays.copyOf(suggestions, suggestions.length + 1);
+        result[suggestions.length] = s;
+        return result;
+    }
+
+    private static Suggestion[] without(Suggestion[] suggestions, Suggestion s) {
+        List<Suggestion> result = new ArrayList<>(Arrays.asList(suggestions));
+        result.remove(s);
+        return result.toArray(NO_SUGGESTIONS);
+    }
+
+    // Offsets of the word-start suffixes of a phrase
+    private static int[] keyStarts(String normalized) {
+        int count = 1;
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            count++;
+        }
+        int[] starts = new int[count];
+        int n = 1;
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            starts[n++] = i + 1;
+        }
+        return starts;
+    }
+
+    private static String normalize(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ") : "";
+    }
+
+    /**
+     * The edge into a node is {@code text[start, end)}, where {@code text} is
+     * the phrase of a suggestion below it; the characters before
+     * {@code start} spell the path from the root.
+     */
+    private static final class Node {
+        final String text;
+        int start;
+        final int end;
+        Node[] children = NO_CHILDREN;
+        Suggestion[] terminals = NO_SUGGESTIONS;
+        Suggestion[] top = NO_SUGGESTIONS;
+
+        Node(String text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        int length() {
+            return end - start;
+        }
+
+        char first() {
+            return text.charAt(start);
+        }
+
+        // Characters of this edge matching key[from..]
+        int commonPrefix(String key, int from) {
+            int n = 0;
+            int max = Math.min(length(), key.length() - from);
+            while (n < max && text.charAt(start + n) == key.charAt(from + n)) {
+                n++;
+            }
+            return n;
+        }
+    }
+
+    private static final class Suggestion {
+        final String text;
+        final String type;
+        final String normalized;
+        final Set<Long> bookIds = new HashSet<>(2);
+        long weight;
+
+        Suggestion(String text, String type, String normalized) {
+            this.text = text;
+            this.type = type;
+            this.normalized = normalized;
+        }
+    }
+}
@@ -5,14 +5,18 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,27 +27,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    // When false the user is loaded on every request, as before token versions
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
+        VerifiedToken token = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                token = jwtUtil.verify(authHeader.substring(7));
             } catch (Exception e) {
                 logger.error("Cannot set user authentication: " + e.getMessage());
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenRevocations.isCurrent(token)) {
+            UserDetails userDetails = stateless ? fromClaims(token)
+                    : userDetailsService.loadUserByUsername(token.subject());
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && token.subject().equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
@@ -54,4 +65,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * The principal as stated by a verified, unrevoked token; the role claim
+     * stands in for the user's stored role.
+     */
+    private static UserDetails fromClaims(VerifiedToken token) {
+        if (token.role() == null) {
+            return null;
+        }
+        return new User(token.subject(), "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.role())));
+    }
 }
@@ -1,75 +1,115 @@
 package com.library.management.security;
 
+import com.library.management.util.ConcurrentBoundedCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies tokens with a parser and key built once at startup.
+ * A token is parsed and verified once; its claims are then cached under the
+ * token's SHA-256 digest until the cache entry's time to live or the token's
+ * expiry, whichever comes first. Every authenticated request reads the
+ * cache, so it takes no lock on reads.
+ */
 @Component
 public class JwtUtil {
 
+    private static final String ROLE_CLAIM = "role";
+    private static final String VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    private SecretKey signKey;
+    private JwtParser parser;
+    private ConcurrentBoundedCache<String, VerifiedToken> verified;
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    @PostConstruct
+    public void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser().verifyWith(signKey).build();
+        verified = new ConcurrentBoundedCache<>(cacheMaxSize, cacheTtlSeconds * 1000);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+    /**
+     * Verify the token's signature and expiry, or return the cached result of
+     * an earlier verification. Throws {@link JwtException} for invalid tokens.
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached;
+        }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiresAt = claims.getExpiration();
+        if (claims.getSubject() == null || expiresAt == null) {
+            throw new MalformedJwtException("Token has no subject or expiry");
+        }
+        Integer version = claims.get(VERSION_CLAIM, Integer.class);
+        VerifiedToken result = new VerifiedToken(claims.getSubject(), claims.get(ROLE_CLAIM, String.class),
+                version != null ? version : 0, expiresAt.getTime());
+        verified.put(digest, result, Math.min(cacheTtlSeconds * 1000, result.expiresAt() - now));
+        return result;
     }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(String username, String role, int version) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(ROLE_CLAIM, role);
+        claims.put(VERSION_CLAIM, version);
         return createToken(claims, username);
     }
 
+    public Map<String, Object> getCacheStats() {
+        return verified.getStats();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        verified.purgeExpired();
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
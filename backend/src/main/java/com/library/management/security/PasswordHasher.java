@@ -0,0 +1,126 @@
+package com.library.management.security;
+
+import com.library.management.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a burst of logins cannot occupy
+ * the request threads. The queue is bounded; when it is full the work is
+ * rejected at once with {@link ServiceBusyException}, and work that waited
+ * longer than {@code auth.hashing.max-wait-ms} is dropped unhashed, since
+ * its client is likely to have given up.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.hashing.queue-size:16}")
+    private int queueSize;
+
+    @Value("${auth.hashing.max-wait-ms:5000}")
+    private long maxWaitMillis;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int strength;
+
+    // A valid hash to compare against when the user does not exist, so the
+    // response time does not reveal which emails are registered
+    private String dummyHash;
+    private ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        dummyHash = passwordEncoder.encode("not-a-password");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Compare on the calling thread; a null hash (no such user) still costs one comparison.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+        return passwordEncoder.matches(rawPassword, hash) && encodedPassword != null;
+    }
+
+    public String encode(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * Whether a stored hash was made with a different cost than the one configured.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("threads", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueSize);
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejected", rejected.sum());
+        stats.put("expired", expired.sum());
+        return stats;
+    }
+
+    /**
+     * Run work that hashes on the pool, failing fast when the pool is saturated.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long queuedAt = System.currentTimeMillis();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (System.currentTimeMillis() - queuedAt > maxWaitMillis) {
+                    expired.increment();
+                    throw busy();
+                }
+                return work.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+    }
+
+    private static ServiceBusyException busy() {
+        return new ServiceBusyException("Too many sign-in attempts in progress, please retry shortly", 1);
+    }
+}
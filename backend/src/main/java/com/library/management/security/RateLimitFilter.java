@@ -0,0 +1,479 @@
+package com.library.management.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.config.RateLimitProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two limits per configured route, checked before the request reaches a
+ * controller:
+ * <ul>
+ *     <li>a token bucket per client (the authenticated user, otherwise the
+ *     remote address), and for anonymous requests on a route that names a
+ *     JSON body field, such as the login email, a second bucket per value of
+ *     that field which must also have a token; an empty bucket gets 429 with
+ *     Retry-After</li>
+ *     <li>a concurrency limit for the route as a whole, raised by one per
+ *     limit's worth of fast responses and cut by a tenth on a slow or failed
+ *     one, at most once per latency threshold so a burst of slow responses
+ *     counts as one signal (AIMD); requests over it get 503</li>
+ * </ul>
+ * Buckets are single atomic longs holding the time the bucket will be full
+ * again (GCRA), so checking one is one compare-and-set. Idle buckets are
+ * purged periodically, and a route holding {@code max-clients} buckets drops
+ * the tenth closest to full before adding another.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Larger bodies are passed through unread and keyed by address alone
+    private static final int MAX_KEYED_BODY_BYTES = 4096;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private List<Route> routes = Collections.emptyList();
+
+    @PostConstruct
+    public void init() {
+        List<Route> compiled = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getCapacity() < 1 || route.getRefillPerSecond() <= 0
+                    || route.getMinConcurrency() < 1 || route.getMaxConcurrency() < route.getMinConcurrency()
+                    || route.getMaxClients() < 1) {
+                throw new IllegalArgumentException("Invalid rate limit for route '" + route.getName() + "'");
+            }
+            compiled.add(new Route(route));
+        }
+        routes = compiled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Route route = match(request.getRequestURI().substring(request.getContextPath().length()));
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientKey(request);
+        long now = System.nanoTime();
+        long waitNanos = route.bucket(route.buckets, client, now).tryTake(now);
+        if (waitNanos <= 0 && route.bodyKeyField != null && client.startsWith("ip:")) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request);
+            if (cached != null) {
+                request = cached;
+                String value = bodyValue(cached, route.bodyKeyField);
+                if (value != null) {
+                    waitNanos = route.bucket(route.fieldBuckets, value, now).tryTake(now);
+                }
+            }
+        }
+        if (waitNanos > 0) {
+            route.throttled.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                    "Rate limit exceeded, please slow down", Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+            return;
+        }
+        if (!route.tryAcquire()) {
+            route.shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                    "Server is busy, please retry shortly", 1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(route, released, start, response.getStatus() < 500);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release(route, released, start, false);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release(route, released, start, false);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            }
+        } finally {
+            if (!async) {
+                release(route, released, start, response.getStatus() < 500);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Route route : routes) {
+            stats.put(route.name, route.getStats());
+        }
+        return stats;
+    }
+
+    // A full bucket behaves like a missing one, so those are dropped
+    @Scheduled(fixedDelayString = "${ratelimit.purge-interval-ms:60000}")
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        for (Route route : routes) {
+            route.buckets.values().removeIf(bucket -> bucket.isFull(now));
+            route.fieldBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    private Route match(String path) {
+        for (Route route : routes) {
+            if (matchesAny(route.patterns, path) && !matchesAny(route.excludePatterns, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Unparseable bodies are left for the controller to reject
+    private String bodyValue(CachedBodyRequest request, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(request.body).get(field);
+            if (value != null && value.isTextual()) {
+                return value.asText().trim().toLowerCase(Locale.ROOT);
+            }
+        } catch (IOException e) {
+            // fall through
+        }
+        return null;
+    }
+
+    private static void release(Route route, AtomicBoolean released, long start, boolean succeeded) {
+        if (released.compareAndSet(false, true)) {
+            route.release(System.nanoTime() - start, succeeded);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String error, String message,
+                        long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", status.value());
+        body.put("error", error);
+        body.put("message", message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class Route {
+        final String name;
+        final List<String> patterns;
+        final List<String> excludePatterns;
+        final long intervalNanos;
+        final long toleranceNanos;
+        final int minLimit;
+        final int maxLimit;
+        final long thresholdNanos;
+        final String bodyKeyField;
+        final int maxClients;
+        final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+        // Keyed by the body field's value alone, whichever address sends it
+        final Map<String, Bucket> fieldBuckets = new ConcurrentHashMap<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        // Current limit as double bits, so increases of 1/limit accumulate
+        final AtomicLong limit;
+        final AtomicLong lastDecrease;
+        final LongAdder allowed = new LongAdder();
+        final LongAdder throttled = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder slow = new LongAdder();
+
+        Route(RateLimitProperties.Route config) {
+            name = config.getName();
+            patterns = List.copyOf(config.getPatterns());
+            excludePatterns = List.copyOf(config.getExcludePatterns());
+            intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRefillPerSecond());
+            toleranceNanos = intervalNanos * (config.getCapacity() - 1);
+            minLimit = config.getMinConcurrency();
+            maxLimit = config.getMaxConcurrency();
+            thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLatencyThresholdMs());
+            bodyKeyField = config.getBodyKeyField() == null || config.getBodyKeyField().isBlank()
+                    ? null : config.getBodyKeyField();
+            maxClients = config.getMaxClients();
+            int initial = Math.max(minLimit, Math.min(maxLimit, config.getInitialConcurrency()));
+            limit = new AtomicLong(Double.doubleToLongBits(initial));
+            lastDecrease = new AtomicLong(System.nanoTime() - thresholdNanos);
+        }
+
+        Bucket bucket(Map<String, Bucket> map, String client, long now) {
+            Bucket bucket = map.get(client);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (map.size() >= maxClients) {
+                evict(map, now);
+            }
+            return map.computeIfAbsent(client, key -> new Bucket(this));
+        }
+
+        /**
+         * Drop full buckets and then, if still at the cap, the tenth of the
+         * rest that are closest to full, so the next evictions are some way
+         * off. A dropped bucket starts full again, which is what those
+         * clients were nearest to anyway.
+         */
+        private void evict(Map<String, Bucket> map, long now) {
+            synchronized (map) {
+                if (map.size() < maxClients) {
+                    return;
+                }
+                map.values().removeIf(bucket -> bucket.isFull(now));
+                if (map.size() < maxClients) {
+                    return;
+                }
+                long[] fullAt = map.values().stream().mapToLong(bucket -> bucket.fullAt.get()).sorted().toArray();
+                long cutoff = fullAt[Math.max(0, fullAt.length / 10 - 1)];
+                map.values().removeIf(bucket -> bucket.fullAt.get() - cutoff <= 0);
+            }
+        }
+
+        boolean tryAcquire() {
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= (int) currentLimit()) {
+                    return false;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+            allowed.increment();
+            return true;
+        }
+
+        void release(long latencyNanos, boolean succeeded) {
+            int running = inFlight.getAndDecrement();
+            boolean fast = succeeded && latencyNanos <= thresholdNanos;
+            if (!fast) {
+                slow.increment();
+                // Requests already in flight when the limit was cut report the same overload
+                long now = System.nanoTime();
+                long last = lastDecrease.get();
+                if (now - last < thresholdNanos || !lastDecrease.compareAndSet(last, now)) {
+                    return;
+                }
+            }
+            long bits;
+            double next;
+            do {
+                bits = limit.get();
+                double current = Double.longBitsToDouble(bits);
+                if (fast) {
+                    // Only grow a limit that is actually being used
+                    if (running * 2 < current) {
+                        return;
+                    }
+                    next = Math.min(maxLimit, current + 1 / current);
+                } else {
+                    next = Math.max(minLimit, current * 0.9);
+                }
+            } while (!limit.compareAndSet(bits, Double.doubleToLongBits(next)));
+        }
+
+        double currentLimit() {
+            return Double.longBitsToDouble(limit.get());
+        }
+
+        Map<String, Object> getStats() {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("patterns", patterns);
+            stats.put("concurrencyLimit", (int) currentLimit());
+            stats.put("inFlight", inFlight.get());
+            stats.put("allowed", allowed.sum());
+            stats.put("throttled", throttled.sum());
+            stats.put("shed", shed.sum());
+            stats.put("slowOrFailed", slow.sum());
+            stats.put("clients", buckets.size());
+            if (bodyKeyField != null) {
+                stats.put(bodyKeyField + "Keys", fieldBuckets.size());
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Holds a small request body in memory so it can be read here and again
+     * by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length < 0 || length > MAX_KEYED_BODY_BYTES) {
+                return null;
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readNBytes((int) length));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already here, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    private static final class Bucket {
+        final Route route;
+        // When the bucket will be full again, in System.nanoTime() terms
+        final AtomicLong fullAt;
+
+        Bucket(Route route) {
+            this.route = route;
+            this.fullAt = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * Take a token; returns 0 on success, otherwise the nanoseconds
+         * until one will be available.
+         */
+        long tryTake(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + route.intervalNanos;
+                long wait = next - now - route.toleranceNanos - route.intervalNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+}
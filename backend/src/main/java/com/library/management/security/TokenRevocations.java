@@ -0,0 +1,67 @@
+package com.library.management.security;
+
+import com.library.management.model.User;
+import com.library.management.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token version and role of every active user, so a token can be checked
+ * without loading its user. A token is accepted only while its version and
+ * role claims match the entry for its subject; deactivated and deleted users
+ * have no entry.
+ */
+@Component
+public class TokenRevocations {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, Grant> grants = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    // After the data seeder, which creates the first users
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        grants.clear();
+        for (Object[] row : userRepository.findTokenGrants()) {
+            update((String) row[0], (Integer) row[1], row[2].toString(), (Boolean) row[3]);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Until the table is loaded, requests arriving during startup are
+     * checked against the stored user instead.
+     */
+    public boolean isCurrent(VerifiedToken token) {
+        Grant grant = loaded ? grants.get(token.subject()) : userRepository.findByEmail(token.subject())
+                .filter(User::getIsActive)
+                .map(user -> new Grant(user.getTokenVersion(), user.getRole().name()))
+                .orElse(null);
+        return grant != null && grant.version() == token.version() && grant.role().equals(token.role());
+    }
+
+    /**
+     * Record a user's stored version, role and status once they have been saved.
+     */
+    public void update(String email, int version, String role, boolean active) {
+        if (active) {
+            grants.put(email, new Grant(version, role));
+        } else {
+            grants.remove(email);
+        }
+    }
+
+    public void revoke(String email) {
+        grants.remove(email);
+    }
+
+    private record Grant(int version, String role) {
+    }
+}
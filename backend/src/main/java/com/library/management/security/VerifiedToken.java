@@ -0,0 +1,12 @@
+package com.library.management.security;
+
+/**
+ * Claims of a token whose signature and expiry have been checked. Tokens
+ * issued without a version claim are on version 0.
+ */
+public record VerifiedToken(String subject, String role, int version, long expiresAt) {
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
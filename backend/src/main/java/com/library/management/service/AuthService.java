@@ -6,13 +6,16 @@ import com.library.management.dto.UserDTO;
 import com.library.management.model.User;
 import com.library.management.repository.UserRepository;
 import com.library.management.security.JwtUtil;
+import com.library.management.security.PasswordHasher;
+import com.library.management.security.TokenRevocations;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
 
@@ -26,17 +29,40 @@ public class AuthService {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private DashboardCounters dashboardCounters;
 
-    public LoginResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    @Autowired
+    private TokenRevocations tokenRevocations;
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    /**
+     * Check the password on the hashing pool and complete with a token. The
+     * user is loaded once, on the pool as well, so no request thread or
+     * request-bound connection is held while hashing. Unknown and deactivated
+     * users still cost one hash and fail the same way as a wrong password. A
+     * hash made with a different cost than configured is replaced after a
+     * successful check.
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
+        return passwordHasher.submit(() -> {
+            User user = userRepository.findByEmail(request.getEmail())
+                    .filter(User::getIsActive)
+                    .orElse(null);
+            if (!passwordHasher.matches(request.getPassword(), user != null ? user.getPassword() : null)) {
+                throw new BadCredentialsException("Invalid email or password");
+            }
+            if (passwordHasher.needsRehash(user.getPassword())) {
+                userRepository.updatePasswordHash(user.getId(), user.getPassword(),
+                        passwordHasher.encode(request.getPassword()));
+            }
+            return toLoginResponse(user);
+        });
+    }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+    private LoginResponse toLoginResponse(User user) {
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getTokenVersion());
 
         UserDTO userDTO = UserDTO.builder()
                 .id(user.getId())
@@ -73,6 +99,8 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        tokenRevocations.update(savedUser.getEmail(), savedUser.getTokenVersion(), savedUser.getRole().name(), true);
+        dashboardCounters.onUserAdded();
 
         return UserDTO.builder()
                 .id(savedUser.getId())
@@ -85,4 +113,12 @@ public class AuthService {
                 .createdAt(savedUser.getCreatedAt() != null ? savedUser.getCreatedAt().toString() : null)
                 .build();
     }
+
+    public Map<String, Object> getTokenCacheStats() {
+        return jwtUtil.getCacheStats();
+    }
+
+    public Map<String, Object> getHashingStats() {
+        return passwordHasher.getStats();
+    }
 }
@@ -0,0 +1,144 @@
+package com.library.management.service;
+
+import com.library.management.dto.BookDTO;
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import com.library.management.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of book snapshots by id and of ISBN to id mappings.
+ * Unknown ISBNs are cached too so repeated duplicate checks skip the database.
+ * Any write bumps a generation counter; a load that raced with a write is
+ * returned to its caller but not stored.
+ */
+@Component
+public class BookCache {
+
+    private static final Long NO_BOOK = -1L;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${cache.books.max-size:10000}")
+    private int maxSize;
+
+    @Value("${cache.books.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private BoundedCache<Long, BookDTO> byId;
+    private BoundedCache<String, Long> byIsbn;
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        byId = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+        byIsbn = new BoundedCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public Optional<BookDTO> getById(Long id) {
+        BookDTO cached = byId.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long observed = generation.get();
+        Optional<BookDTO> loaded = bookRepository.findById(id).map(this::convertToDTO);
+        if (loaded.isPresent() && generation.get() == observed) {
+            byId.put(id, loaded.get());
+            byIsbn.put(loaded.get().getIsbn(), id);
+        }
+        return loaded;
+    }
+
+    public boolean existsByIsbn(String isbn) {
+        Long cached = byIsbn.get(isbn);
+        if (cached != null) {
+            return !NO_BOOK.equals(cached);
+        }
+
+        long observed = generation.get();
+        Long id = bookRepository.findByIsbn(isbn).map(Book::getId).orElse(NO_BOOK);
+        if (generation.get() == observed) {
+            byIsbn.put(isbn, id);
+        }
+        return !NO_BOOK.equals(id);
+    }
+
+    /**
+     * Store the state of a book that has just been written.
+     */
+    public void put(BookDTO book) {
+        generation.incrementAndGet();
+        byId.put(book.getId(), book);
+        byIsbn.put(book.getIsbn(), book.getId());
+    }
+
+    /**
+     * Drop a book now and, inside a transaction, again after commit so a
+     * concurrent read cannot re-cache the pre-commit row.
+     */
+    public void evict(Long id, String isbn) {
+        doEvict(id, isbn);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    doEvict(id, isbn);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("byId", byId.getStats());
+        stats.put("byIsbn", byIsbn.getStats());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${cache.books.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        byId.purgeExpired();
+        byIsbn.purgeExpired();
+    }
+
+    private void doEvict(Long id, String isbn) {
+        generation.incrementAndGet();
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (isbn != null) {
+            byIsbn.invalidate(isbn);
+        }
+    }
+
+    private BookDTO convertToDTO(Book book) {
+        return BookDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .category(book.getCategory())
+                .publisher(book.getPublisher())
+                .publicationYear(book.getPublicationYear())
+                .quantity(book.getQuantity())
+                .availableCopies(book.getAvailableCopies())
+                .price(book.getPrice())
+                .description(book.getDescription())
+                .createdAt(book.getCreatedAt() != null ? book.getCreatedAt().toString() : null)
+                .updatedAt(book.getUpdatedAt() != null ? book.getUpdatedAt().toString() : null)
+                .build();
+    }
+}
@@ -0,0 +1,378 @@
+package com.library.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.dto.BookDTO;
+import com.library.management.dto.ImportReport;
+import com.library.management.journal.CirculationJournal;
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import com.library.management.search.BookSearchEngine;
+import com.library.management.search.FacetIndex;
+import com.library.management.search.FuzzyIndex;
+import com.library.management.search.SuggestionIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON catalog file line by line and inserts books with
+ * JDBC batches, bypassing per-entity inserts that IDENTITY keys cannot batch.
+ */
+@Service
+public class BookImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO book (title, author, isbn, category, publisher, " +
+            "publication_year, quantity, available_copies, price, description, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchEngine searchEngine;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private FuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${import.books.batch-size:500}")
+    private int batchSize;
+
+    @Value("${import.max-errors:1000}")
+    private int maxErrors;
+
+    public ImportReport importBooks(InputStream input, String format) throws IOException {
+        boolean csv = isCsv(format);
+        long start = System.nanoTime();
+        ImportReport report = ImportReport.builder().errors(new ArrayList<>()).build();
+        Set<String> seenIsbns = new HashSet<>();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+                report.setTotalRows(report.getTotalRows() + 1);
+
+                BookDTO book;
+                try {
+                    book = csv ? fromCsv(parseCsvLine(line), columns) : objectMapper.readValue(line, BookDTO.class);
+                } catch (JsonProcessingException e) {
+                    reject(report, lineNumber, null, "INVALID", e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    reject(report, lineNumber, null, "INVALID", e.getMessage());
+                    continue;
+                }
+
+                String violations = validate(book);
+                if (violations != null) {
+                    reject(report, lineNumber, book.getIsbn(), "INVALID", violations);
+                    continue;
+                }
+                if (!seenIsbns.add(book.getIsbn())) {
+                    reject(report, lineNumber, book.getIsbn(), "DUPLICATE", "Duplicate ISBN in file");
+                    continue;
+                }
+
+                batch.add(new PendingRow(lineNumber, book));
+                if (batch.size() >= batchSize) {
+                    flush(batch, report);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setDurationMillis(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos > 0 ? report.getTotalRows() * 1_000_000_000.0 / elapsedNanos : 0.0);
+        return report;
+    }
+
+    private void flush(List<PendingRow> batch, ImportReport report) {
+        Set<String> existing = new HashSet<>(bookRepository.findExistingIsbns(
+                batch.stream().map(row -> row.book().getIsbn()).collect(Collectors.toList())));
+
+        List<PendingRow> rows = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (existing.contains(row.book().getIsbn())) {
+                reject(report, row.line(), row.book().getIsbn(), "DUPLICATE", "ISBN already exists");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<PendingRow> inserted = new ArrayList<>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), this::bind));
+            inserted.addAll(rows);
+        } catch (DataAccessException e) {
+            // One bad row fails the whole batch; retry row by row to report it
+            for (PendingRow row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                    inserted.add(row);
+                } catch (DataAccessException rowError) {
+                    reject(report, row.line(), row.book().getIsbn(), "FAILED",
+                            rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        report.setImported(report.getImported() + inserted.size());
+        if (!inserted.isEmpty()) {
+            index(inserted);
+        }
+    }
+
+    /**
+     * Feed inserted rows to the in-memory indexes. Only generated ids are read
+     * back, so no entities pile up in the request's persistence context.
+     */
+    private void index(List<PendingRow> inserted) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : bookRepository.findIdsByIsbnIn(
+                inserted.stream().map(r -> r.book().getIsbn()).collect(Collectors.toList()))) {
+            ids.put((String) row[0], (Long) row[1]);
+        }
+
+        List<Book> books = new ArrayList<>(inserted.size());
+        for (PendingRow row : inserted) {
+            BookDTO dto = row.book();
+            int quantity = dto.getQuantity() != null ? dto.getQuantity() : 0;
+            books.add(Book.builder()
+                    .id(ids.get(dto.getIsbn()))
+                    .title(dto.getTitle())
+                    .author(dto.getAuthor())
+                    .isbn(dto.getIsbn())
+                    .category(dto.getCategory())
+                    .publisher(dto.getPublisher())
+                    .publicationYear(dto.getPublicationYear())
+                    .quantity(quantity)
+                    .availableCopies(quantity)
+                    .price(dto.getPrice())
+                    .description(dto.getDescription())
+                    .build());
+            bookCache.evict(null, dto.getIsbn());
+        }
+        searchEngine.onBooksSaved(books);
+        suggestionIndex.onBooksSaved(books);
+        facetIndex.onBooksSaved(books);
+        fuzzyIndex.onBooksSaved(books);
+        dashboardCounters.onBooksAdded(books.size(), books.stream().filter(b -> b.getAvailableCopies() > 0).count());
+        books.forEach(circulationJournal::bookSaved);
+        resourceVersions.booksChanged();
+    }
+
+    private void bind(PreparedStatement ps, PendingRow row) throws SQLException {
+        BookDTO book = row.book();
+        int quantity = book.getQuantity() != null ? book.getQuantity() : 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getAuthor());
+        ps.setString(3, book.getIsbn());
+        ps.setString(4, book.getCategory());
+        ps.setString(5, book.getPublisher());
+        ps.setObject(6, book.getPublicationYear(), Types.INTEGER);
+        ps.setInt(7, quantity);
+        ps.setInt(8, quantity);
+        ps.setBigDecimal(9, book.getPrice());
+        ps.setString(10, book.getDescription());
+        ps.setTimestamp(11, now);
+        ps.setTimestamp(12, now);
+    }
+
+    private void reject(ImportReport report, long line, String isbn, String status, String message) {
+        if ("DUPLICATE".equals(status)) {
+            report.setDuplicates(report.getDuplicates() + 1);
+        } else {
+            report.setFailed(report.getFailed() + 1);
+        }
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(new ImportReport.RowError(line, isbn, status, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private String validate(BookDTO book) {
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(book);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    static boolean isCsv(String format) {
+        String value = format != null ? format.toLowerCase(Locale.ROOT) : "";
+        if (value.contains("csv")) {
+            return true;
+        }
+        if (value.contains("ndjson") || value.contains("jsonl") || value.contains("x-json-stream")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + format + " (expected CSV or NDJSON)");
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        String[] names = parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""), i);
+        }
+        for (String required : List.of("title", "author", "isbn")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static BookDTO fromCsv(String[] values, Map<String, Integer> columns) {
+        return BookDTO.builder()
+                .title(column(values, columns, "title"))
+                .author(column(values, columns, "author"))
+                .isbn(column(values, columns, "isbn"))
+                .category(column(values, columns, "category"))
+                .publisher(column(values, columns, "publisher"))
+                .publicationYear(parseInteger(column(values, columns, "publicationyear")))
+                .quantity(parseInteger(column(values, columns, "quantity")))
+                .price(parseDecimal(column(values, columns, "price")))
+                .description(column(values, columns, "description"))
+                .build();
+    }
+
+    private static String column(String[] values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value) {
+        try {
+            return value != null ? new BigDecimal(value) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    /**
+     * Split one CSV record, honouring double-quoted fields and "" escapes.
+     * Quoted fields may not span lines.
+     */
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private record PendingRow(long line, BookDTO book) {
+    }
+}
@@ -1,13 +1,31 @@
 package com.library.management.service;
 
 import com.library.management.dto.BookDTO;
+import com.library.management.dto.FacetedSearchResponse;
+import com.library.management.dto.PageResponse;
+import com.library.management.dto.SuggestionDTO;
 import com.library.management.exception.ResourceNotFoundException;
+import com.library.management.journal.CirculationJournal;
 import com.library.management.model.Book;
 import com.library.management.repository.BookRepository;
+import com.library.management.search.BookSearchEngine;
+import com.library.management.search.FacetIndex;
+import com.library.management.search.FuzzyIndex;
+import com.library.management.search.SuggestionIndex;
+import com.library.management.util.AfterCommit;
+import com.library.management.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,20 +34,100 @@ public class BookService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookSearchEngine searchEngine;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private FuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private EventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${search.max-results:200}")
+    private int maxSearchResults;
+
     public List<BookDTO> getAllBooks() {
         return bookRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    public PageResponse<BookDTO> getBooks(String after, int limit, String sort) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Book> books;
+        if ("title".equals(sort)) {
+            if (after == null) {
+                books = bookRepository.findFirstPageByTitle(page);
+            } else {
+                String[] keys = CursorCodec.decode(after, sort, 2);
+                books = bookRepository.findPageAfterTitle(keys[1], CursorCodec.decodeId(keys[0]), page);
+            }
+        } else if ("id".equals(sort)) {
+            long afterId = after != null ? CursorCodec.decodeId(CursorCodec.decode(after, sort, 1)[0]) : 0L;
+            books = bookRepository.findPageAfterId(afterId, page);
+        } else {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+
+        boolean hasMore = books.size() > limit;
+        if (hasMore) {
+            books = books.subList(0, limit);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Book last = books.get(books.size() - 1);
+            nextCursor = "title".equals(sort)
+                    ? CursorCodec.encode(sort, String.valueOf(last.getId()), last.getTitle())
+                    : CursorCodec.encode(sort, String.valueOf(last.getId()));
+        }
+
+        return PageResponse.<BookDTO>builder()
+                .items(books.stream().map(this::convertToDTO).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
+    }
+
     public BookDTO getBookById(Long id) {
-        Book book = bookRepository.findById(id)
+        return bookCache.getById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id));
+    }
+
+    public LocalDateTime getBookUpdatedAt(Long id) {
+        return bookRepository.findUpdatedAtById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id));
-        return convertToDTO(book);
     }
 
     public BookDTO createBook(BookDTO bookDTO) {
-        if (bookRepository.existsByIsbn(bookDTO.getIsbn())) {
+        if (bookCache.existsByIsbn(bookDTO.getIsbn())) {
             throw new IllegalArgumentException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
         }
 
@@ -47,15 +145,45 @@ public class BookService {
                 .build();
 
         Book savedBook = bookRepository.save(book);
-        return convertToDTO(savedBook);
+        searchEngine.onBookSaved(savedBook);
+        suggestionIndex.onBookSaved(savedBook);
+        facetIndex.onBookSaved(savedBook);
+        fuzzyIndex.onBookSaved(savedBook);
+        dashboardCounters.onBooksAdded(1, savedBook.getAvailableCopies() > 0 ? 1 : 0);
+        circulationJournal.bookSaved(savedBook);
+        eventBroadcaster.publish(EventBroadcaster.BOOK_CHANGED, Map.of("bookId", savedBook.getId()));
+        resourceVersions.booksChanged();
+
+        BookDTO savedDTO = convertToDTO(savedBook);
+        bookCache.put(savedDTO);
+        return savedDTO;
     }
 
+    @Transactional
     public BookDTO updateBook(Long id, BookDTO bookDTO) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id));
+        String previousIsbn = book.getIsbn();
 
-        // Calculate the difference in quantity to adjust available copies
-        int quantityDiff = (bookDTO.getQuantity() != null ? bookDTO.getQuantity() : book.getQuantity()) - book.getQuantity();
+        // Quantity and available copies move together in one guarded update; the book is then reloaded.
+        // Checkouts and returns never change the quantity, so the update only misses when another
+        // edit got in first, and is retried from the quantity that edit left
+        int copies = 0;
+        if (bookDTO.getQuantity() != null && !bookDTO.getQuantity().equals(book.getQuantity())) {
+            int previous = book.getQuantity();
+            while (bookRepository.adjustQuantity(id, previous, bookDTO.getQuantity(), LocalDateTime.now()) == 0) {
+                int current = bookRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id))
+                        .getQuantity();
+                if (current == previous) {
+                    throw new IllegalArgumentException("Quantity cannot be lower than the number of copies on loan");
+                }
+                previous = current;
+            }
+            copies = bookDTO.getQuantity() - previous;
+            book = bookRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id));
+        }
 
         book.setTitle(bookDTO.getTitle() != null ? bookDTO.getTitle() : book.getTitle());
         book.setAuthor(bookDTO.getAuthor() != null ? bookDTO.getAuthor() : book.getAuthor());
@@ -63,12 +191,30 @@ public class BookService {
         book.setCategory(bookDTO.getCategory() != null ? bookDTO.getCategory() : book.getCategory());
         book.setPublisher(bookDTO.getPublisher() != null ? bookDTO.getPublisher() : book.getPublisher());
         book.setPublicationYear(bookDTO.getPublicationYear() != null ? bookDTO.getPublicationYear() : book.getPublicationYear());
-        book.setQuantity(bookDTO.getQuantity() != null ? bookDTO.getQuantity() : book.getQuantity());
-        book.setAvailableCopies(Math.max(0, book.getAvailableCopies() + quantityDiff));
         book.setPrice(bookDTO.getPrice() != null ? bookDTO.getPrice() : book.getPrice());
         book.setDescription(bookDTO.getDescription() != null ? bookDTO.getDescription() : book.getDescription());
 
-        Book updatedBook = bookRepository.save(book);
+        Book updatedBook = bookRepository.saveAndFlush(book);
+        bookCache.evict(id, previousIsbn);
+        bookCache.evict(id, updatedBook.getIsbn());
+
+        // Checkouts and returns can commit between this commit and the callback,
+        // so copies are applied as a change rather than as the count read here
+        int copiesChanged = copies;
+        AfterCommit.run(() -> {
+            searchEngine.onBookSaved(updatedBook);
+            suggestionIndex.onBookSaved(updatedBook);
+            facetIndex.onBookEdited(updatedBook);
+            fuzzyIndex.onBookSaved(updatedBook);
+            eventBroadcaster.publish(EventBroadcaster.BOOK_CHANGED, Map.of("bookId", updatedBook.getId()));
+            if (copiesChanged != 0) {
+                int change = facetIndex.onCopiesChanged(updatedBook.getId(), copiesChanged);
+                dashboardCounters.onAvailabilityChanged(change);
+                eventBroadcaster.publishAvailability(updatedBook.getId(), change);
+                circulationJournal.copiesAdjusted(updatedBook.getId(), copiesChanged);
+            }
+        });
+        resourceVersions.booksChanged();
         return convertToDTO(updatedBook);
     }
 
@@ -76,12 +222,98 @@ public class BookService {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book", "id", id));
         bookRepository.delete(book);
+        bookCache.evict(id, book.getIsbn());
+        searchEngine.onBookDeleted(id);
+        suggestionIndex.onBookDeleted(id);
+        facetIndex.onBookDeleted(id);
+        fuzzyIndex.onBookDeleted(id);
+        dashboardCounters.onBookRemoved(book.getAvailableCopies() > 0);
+        circulationJournal.bookDeleted(id);
+        eventBroadcaster.publish(EventBroadcaster.BOOK_DELETED, Map.of("bookId", id));
+        resourceVersions.booksChanged();
     }
 
-    public List<BookDTO> searchBooks(String keyword) {
-        return bookRepository.searchBooks(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Return the best {@code search.max-results} matches. One more is fetched
+     * to tell whether the cap cut the results short, reported as hasMore.
+     */
+    public PageResponse<BookDTO> searchBooks(String keyword, boolean fuzzy) {
+        List<Book> matches;
+        if (!fuzzy) {
+            matches = searchEngine.search(keyword, maxSearchResults + 1);
+        } else {
+            List<Long> ids = fuzzyIndex.search(keyword, maxSearchResults + 1);
+            Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Book::getId, Function.identity()));
+            matches = ids.stream()
+                    .map(books::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        boolean hasMore = matches.size() > maxSearchResults;
+        return PageResponse.<BookDTO>builder()
+                .items(matches.stream()
+                        .limit(maxSearchResults)
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .limit(maxSearchResults)
+                .build();
+    }
+
+    public FacetedSearchResponse browseBooks(String keyword, String category, String publisher,
+                                             String yearBucket, Boolean available, String after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+
+        Map<String, String> filters = new LinkedHashMap<>();
+        if (category != null) {
+            filters.put(FacetIndex.CATEGORY, category);
+        }
+        if (publisher != null) {
+            filters.put(FacetIndex.PUBLISHER, publisher);
+        }
+        if (yearBucket != null) {
+            filters.put(FacetIndex.YEAR_BUCKET, yearBucket);
+        }
+        if (available != null) {
+            filters.put(FacetIndex.AVAILABLE, available.toString());
+        }
+
+        List<Long> restrictTo = keyword != null && !keyword.isBlank() ? searchEngine.searchIds(keyword, maxSearchResults) : null;
+        Integer afterDocId = after != null
+                ? Math.toIntExact(CursorCodec.decodeId(CursorCodec.decode(after, "facets", 1)[0]))
+                : null;
+        FacetIndex.Result result = facetIndex.query(filters, restrictTo, afterDocId, limit);
+
+        Map<Long, Book> books = bookRepository.findAllById(result.getBookIds()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return FacetedSearchResponse.builder()
+                .items(result.getBookIds().stream()
+                        .map(books::get)
+                        .filter(Objects::nonNull)
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList()))
+                .total(result.getTotal())
+                .facets(result.getCounts())
+                .nextCursor(result.getNextDocId() != null
+                        ? CursorCodec.encode("facets", String.valueOf(result.getNextDocId()))
+                        : null)
+                .hasMore(result.getNextDocId() != null)
+                .build();
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return bookCache.getStats();
+    }
+
+    public List<SuggestionDTO> suggestBooks(String prefix, int limit) {
+        if (limit < 1 || limit > suggestionIndex.getMaxResults()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + suggestionIndex.getMaxResults());
+        }
+        return suggestionIndex.suggest(prefix, limit);
     }
 
     private BookDTO convertToDTO(Book book) {
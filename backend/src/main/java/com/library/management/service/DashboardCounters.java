@@ -0,0 +1,131 @@
+package com.library.management.service;
+
+import com.library.management.journal.CirculationJournal;
+import com.library.management.repository.BookRepository;
+import com.library.management.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Book and user totals for the dashboard, taken at startup from the
+ * circulation journal (or counted when it is disabled) and then
+ * adjusted by the write paths after their transactions commit. A periodic
+ * recount corrects any drift, e.g. from rows changed outside the application,
+ * by adding the difference rather than overwriting, so adjustments made
+ * while it runs are kept.
+ * Issued and overdue counts come from {@link OverdueTracker}.
+ */
+@Component
+public class DashboardCounters {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
+    private final AtomicLong totalBooks = new AtomicLong();
+    private final AtomicLong availableBooks = new AtomicLong();
+    private final AtomicLong totalUsers = new AtomicLong();
+    private volatile boolean ready = false;
+
+    /**
+     * Book totals come from the replayed journal when it is available.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        long[] totals = circulationJournal.getBookTotals();
+        if (totals != null) {
+            totalBooks.set(totals[0]);
+            availableBooks.set(totals[1]);
+        } else {
+            totalBooks.set(bookRepository.count());
+            availableBooks.set(bookRepository.countByAvailableCopiesGreaterThan(0));
+        }
+        totalUsers.set(userRepository.count());
+        ready = true;
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        correct(totalBooks, bookRepository::count);
+        correct(availableBooks, () -> bookRepository.countByAvailableCopiesGreaterThan(0));
+        correct(totalUsers, userRepository::count);
+    }
+
+    public boolean isReady() {
+        return ready && overdueTracker.isReady();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalBooks", totalBooks.get());
+        stats.put("availableBooks", availableBooks.get());
+        stats.put("issuedBooks", overdueTracker.getActiveCount());
+        stats.put("overdueBooks", overdueTracker.getOverdueCount());
+        stats.put("totalUsers", totalUsers.get());
+        return stats;
+    }
+
+    public void onBooksAdded(long books, long available) {
+        totalBooks.addAndGet(books);
+        availableBooks.addAndGet(available);
+    }
+
+    public void onBookRemoved(boolean wasAvailable) {
+        totalBooks.decrementAndGet();
+        if (wasAvailable) {
+            availableBooks.decrementAndGet();
+        }
+    }
+
+    /**
+     * Apply a book going in or out of stock: +1, -1, or 0 for no change.
+     */
+    public void onAvailabilityChanged(int change) {
+        if (change != 0) {
+            availableBooks.addAndGet(change);
+        }
+    }
+
+    public void onUserAdded() {
+        totalUsers.incrementAndGet();
+    }
+
+    public void onUsersAdded(long users) {
+        totalUsers.addAndGet(users);
+    }
+
+    public void onUserRemoved() {
+        totalUsers.decrementAndGet();
+    }
+
+    /**
+     * Move a counter by the difference between the database count and the
+     * counter as it stood when counting started. An adjustment that lands
+     * during the count may or may not be in it, so the counter is then left
+     * for the next pass.
+     */
+    private static void correct(AtomicLong counter, LongSupplier count) {
+        long baseline = counter.get();
+        long counted = count.getAsLong();
+        if (counter.get() == baseline) {
+            counter.addAndGet(counted - baseline);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.library.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.event.IssuesOverdueEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of circulation changes to Server-Sent Events subscribers. Each
+ * event is serialized once and queued per subscriber; a small sender pool
+ * drains the queues, so writers never wait on a client. A subscriber whose
+ * queue overflows is disconnected and picks up a fresh snapshot when its
+ * EventSource reconnects.
+ */
+@Component
+public class EventBroadcaster {
+
+    public static final String STATS = "stats";
+    public static final String ISSUE_ISSUED = "issue.issued";
+    public static final String ISSUE_RETURNED = "issue.returned";
+    public static final String ISSUE_OVERDUE = "issue.overdue";
+    public static final String BOOK_CHANGED = "book.changed";
+    public static final String BOOK_DELETED = "book.deleted";
+    public static final String BOOK_AVAILABILITY = "book.availability";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Value("${events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${events.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${events.sender-threads:2}")
+    private int senderThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private ExecutorService sender;
+    private Map<String, Object> lastStats = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdown();
+    }
+
+    /**
+     * Open a stream for the caller. The first event is a stats snapshot so a
+     * reconnecting client does not need to refetch.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        if (dashboardCounters.isReady()) {
+            subscriber.offer(frame(STATS, refreshStats()));
+            schedule(subscriber);
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public void publish(String type, Map<String, Object> data) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = frame(type, data);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(frame)) {
+                schedule(subscriber);
+            } else {
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Publish a book going in or out of stock: +1, -1, or 0 for no change.
+     */
+    public void publishAvailability(Long bookId, int change) {
+        if (change != 0) {
+            publish(BOOK_AVAILABILITY, Map.of("bookId", bookId, "available", change > 0));
+        }
+    }
+
+    @EventListener
+    public void onIssuesOverdue(IssuesOverdueEvent event) {
+        publish(ISSUE_OVERDUE, Map.of("date", event.getDate().toString(), "issueIds", event.getIssueIds()));
+    }
+
+    /**
+     * Counter changes are coalesced: the stats are compared with the last
+     * ones sent and pushed at most once per interval.
+     */
+    @Scheduled(fixedDelayString = "${events.stats-interval-ms:1000}")
+    public void publishStats() {
+        if (!subscribers.isEmpty() && dashboardCounters.isReady()) {
+            refreshStats();
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects closed clients
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("ping").build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(frame)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // Brings existing subscribers up to date before a new one gets its snapshot
+    private synchronized Map<String, Object> refreshStats() {
+        Map<String, Object> stats = dashboardCounters.getStats();
+        if (!stats.equals(lastStats)) {
+            lastStats = stats;
+            publish(STATS, stats);
+        }
+        return stats;
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(String type, Map<String, Object> data) {
+        try {
+            return SseEmitter.event()
+                    .id(Long.toString(sequence.incrementAndGet()))
+                    .name(type)
+                    .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(subscriber);
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            return !closed && queue.offer(frame);
+        }
+
+        /**
+         * Detach from the publisher; the emitter itself is completed on the
+         * sender pool, since it may be blocked in a write to this client.
+         */
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            try {
+                sender.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container completes the emitter
+                closed = true;
+                subscribers.remove(this);
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                schedule(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.library.management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Writes the catalog and the issue ledger straight from a forward-only JDBC
+ * cursor to an output stream, one row at a time, so memory use does not
+ * depend on table size.
+ */
+@Service
+public class ExportService {
+
+    private static final String[][] BOOK_COLUMNS = {
+            {"id", "id"},
+            {"title", "title"},
+            {"author", "author"},
+            {"isbn", "isbn"},
+            {"category", "category"},
+            {"publisher", "publisher"},
+            {"publicationYear", "publication_year"},
+            {"quantity", "quantity"},
+            {"availableCopies", "available_copies"},
+            {"price", "price"},
+            {"description", "description"},
+            {"createdAt", "created_at"},
+            {"updatedAt", "updated_at"}
+    };
+
+    private static final String[][] ISSUE_COLUMNS = {
+            {"id", "i.id"},
+            {"bookId", "i.book_id"},
+            {"bookTitle", "b.title"},
+            {"bookIsbn", "b.isbn"},
+            {"userId", "i.user_id"},
+            {"userName", "u.name"},
+            {"memberName", "i.member_name"},
+            {"memberEmail", "i.member_email"},
+            {"memberType", "i.member_type"},
+            {"issueDate", "i.issue_date"},
+            {"dueDate", "i.due_date"},
+            {"returnDate", "i.return_date"},
+            {"fine", "i.fine"},
+            {"status", "i.status"},
+            {"remarks", "i.remarks"},
+            {"createdAt", "i.created_at"},
+            {"updatedAt", "i.updated_at"}
+    };
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (expected csv or ndjson)");
+            }
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate streamingTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+
+        // PostgreSQL only honours the fetch size inside a transaction
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportBooks(Format format, OutputStream out) throws IOException {
+        export(BOOK_COLUMNS, "FROM book ORDER BY id", format, out);
+    }
+
+    public void exportIssues(Format format, OutputStream out) throws IOException {
+        // Live and archived issues together, in id order
+        export(ISSUE_COLUMNS, "FROM (SELECT " + IssueArchiveJob.ISSUE_COLUMNS + " FROM issue UNION ALL " +
+                "SELECT " + IssueArchiveJob.ISSUE_COLUMNS + " FROM issue_archive) i " +
+                "JOIN book b ON b.id = i.book_id JOIN users u ON u.id = i.user_id ORDER BY i.id", format, out);
+    }
+
+    private void export(String[][] columns, String fromClause, Format format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ", " : "").append(columns[i][1]);
+        }
+        sql.append(' ').append(fromClause);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer, columns) : new NdjsonRowWriter(writer, columns);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> streamingTemplate.query(sql.toString(), rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Clob) {
+            return rs.getString(column);
+        }
+        return value;
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final String[][] columns;
+
+        CsvRowWriter(Writer writer, String[][] columns) throws IOException {
+            this.writer = writer;
+            this.columns = columns;
+            for (int i = 0; i < columns.length; i++) {
+                writer.write(i > 0 ? "," : "");
+                writer.write(columns[i][0]);
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i + 1);
+                if (value != null) {
+                    writer.write(escape(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private static String escape(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final String[][] columns;
+
+        NdjsonRowWriter(Writer writer, String[][] columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i][0]);
+                generator.writeObject(value(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.library.management.service;
+
+import com.library.management.exception.JobAlreadyRunningException;
+import com.library.management.util.FineCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly accrual of fines on open overdue loans. Overdue issues are read in
+ * id-ordered chunks; each chunk's fines are computed in paise on a fork-join
+ * pool and only changed ones are written back with one batch update per chunk.
+ * A run uses one {@link FinePolicy} snapshot, so a reload mid-run is not mixed in.
+ */
+@Component
+public class FineAccrualJob {
+
+    private static final String SCAN_SQL = "SELECT i.id, i.due_date, ROUND(i.fine * 100), b.category, i.member_type " +
+            "FROM issue i JOIN book b ON b.id = i.book_id " +
+            "WHERE i.status = 'ISSUED' AND i.due_date < ? AND i.id > ? ORDER BY i.id LIMIT ?";
+
+    // The status guard keeps a fine set by a concurrent return
+    private static final String UPDATE_SQL = "UPDATE issue SET fine = ?, updated_at = ? " +
+            "WHERE id = ? AND status = 'ISSUED'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Value("${fines.accrual.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${fines.accrual.parallelism:4}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Scheduled(cron = "${fines.accrual-cron:0 5 0 * * *}")
+    public void scheduledRun() {
+        if (!running.get()) {
+            accrue();
+        }
+    }
+
+    public Map<String, Object> accrue() {
+        if (!running.compareAndSet(false, true)) {
+            throw new JobAlreadyRunningException("Fine accrual is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            FinePolicy.Compiled policy = finePolicy.current();
+
+            long scanned = 0;
+            long updated = 0;
+            long afterId = 0;
+            List<Callable<Integer>> tasks = new ArrayList<>(parallelism);
+            Chunk chunk;
+            do {
+                chunk = readChunk(policy, today, afterId);
+                if (chunk.size > 0) {
+                    Chunk pending = chunk;
+                    scanned += chunk.size;
+                    afterId = chunk.ids[chunk.size - 1];
+                    tasks.add(() -> write(policy, pending, today.toEpochDay(), now));
+                }
+                if (tasks.size() == parallelism || (chunk.size < chunkSize && !tasks.isEmpty())) {
+                    updated += runAll(tasks);
+                    tasks.clear();
+                }
+            } while (chunk.size == chunkSize);
+
+            if (updated > 0) {
+                resourceVersions.issuesChanged();
+            }
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("date", today.toString());
+            stats.put("scanned", scanned);
+            stats.put("updated", updated);
+            stats.put("durationMillis", (System.nanoTime() - start) / 1_000_000);
+            lastRun = stats;
+            return stats;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+
+    private Chunk readChunk(FinePolicy.Compiled policy, LocalDate today, long afterId) {
+        Chunk chunk = new Chunk(chunkSize);
+        jdbcTemplate.query(SCAN_SQL, rs -> {
+            int i = chunk.size++;
+            chunk.ids[i] = rs.getLong(1);
+            chunk.dueEpochDays[i] = rs.getDate(2).toLocalDate().toEpochDay();
+            chunk.fineCents[i] = rs.getLong(3);
+            chunk.rules[i] = policy.ruleIndex(rs.getString(4), rs.getString(5));
+        }, Date.valueOf(today), afterId, chunkSize);
+        return chunk;
+    }
+
+    private int write(FinePolicy.Compiled policy, Chunk chunk, long todayEpochDay, Timestamp now) {
+        int[] changed = new int[chunk.size];
+        long[] fines = new long[chunk.size];
+        int count = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            long fine = policy.fineCents(chunk.rules[i], chunk.dueEpochDays[i], todayEpochDay);
+            if (fine != chunk.fineCents[i]) {
+                changed[count] = i;
+                fines[count] = fine;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        int rows = count;
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int k) throws SQLException {
+                        ps.setBigDecimal(1, FineCalculator.toAmount(fines[k]));
+                        ps.setTimestamp(2, now);
+                        ps.setLong(3, chunk.ids[changed[k]]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows;
+                    }
+                }));
+        return rows;
+    }
+
+    private int runAll(List<Callable<Integer>> tasks) {
+        int total = 0;
+        for (Future<Integer> result : pool.invokeAll(tasks)) {
+            try {
+                total += result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Fine accrual interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fine accrual failed", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    private static final class Chunk {
+        final long[] ids;
+        final long[] dueEpochDays;
+        final long[] fineCents;
+        final int[] rules;
+        int size;
+
+        Chunk(int capacity) {
+            ids = new long[capacity];
+            dueEpochDays = new long[capacity];
+            fineCents = new long[capacity];
+            rules = new int[capacity];
+        }
+    }
+}
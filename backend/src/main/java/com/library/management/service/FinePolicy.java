@@ -0,0 +1,319 @@
+package com.library.management.service;
+
+import com.library.management.config.FinePolicyProperties;
+import com.library.management.util.FineCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loan periods and fines compiled from {@link FinePolicyProperties} into
+ * dense tables indexed by (category, member type), plus a bitmap of closed
+ * days with prefix counts. Checkout and return only do array lookups;
+ * rules are resolved once when the policy is loaded or reloaded.
+ *
+ * Due dates that fall on a closed day move to the next open day. Closed days
+ * and the grace days after the due date are not charged.
+ *
+ * When {@code fines.policy.location} names a properties file, the
+ * {@code fines.policy.*} keys are read from it, at startup and again on
+ * {@link #reload()}; otherwise they come from the application properties and
+ * changing them needs a restart.
+ */
+@Component
+public class FinePolicy {
+
+    private static final String ANY = "*";
+
+    // Closed days are tracked for this many years either side of the load date
+    private static final int CALENDAR_YEARS = 5;
+
+    private static final int MAX_LOOKUPS = 4096;
+
+    @Autowired
+    private FinePolicyProperties properties;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${fines.policy.location:}")
+    private String location;
+
+    private volatile Compiled compiled;
+
+    @PostConstruct
+    public void init() {
+        compiled = compile(location == null || location.isBlank() ? properties : readLocation(), LocalDate.now());
+    }
+
+    /**
+     * Re-read the policy file and swap in new tables. A policy that does not
+     * compile leaves the current one in force.
+     */
+    public Map<String, Object> reload() {
+        if (location == null || location.isBlank()) {
+            throw new IllegalArgumentException(
+                    "Fine policy is not loaded from a file (fines.policy.location); changing it needs a restart");
+        }
+        compiled = compile(readLocation(), LocalDate.now());
+        return getSummary();
+    }
+
+    /**
+     * The tables in force; a long-running job keeps one snapshot throughout.
+     */
+    public Compiled current() {
+        return compiled;
+    }
+
+    public LocalDate calculateDueDate(LocalDate issueDate, String category, String memberType) {
+        Compiled tables = compiled;
+        return tables.dueDate(tables.ruleIndex(category, memberType), issueDate);
+    }
+
+    public BigDecimal calculateFine(LocalDate dueDate, LocalDate returnDate, String category, String memberType) {
+        if (returnDate == null) {
+            return BigDecimal.ZERO;
+        }
+        Compiled tables = compiled;
+        return FineCalculator.toAmount(tables.fineCents(tables.ruleIndex(category, memberType),
+                dueDate.toEpochDay(), returnDate.toEpochDay()));
+    }
+
+    public Map<String, Object> getSummary() {
+        Compiled tables = compiled;
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("categories", tables.categoryIndex.keySet());
+        summary.put("memberTypes", tables.memberTypeIndex.keySet());
+        summary.put("rules", tables.loanDays.length);
+        summary.put("closedDays", tables.closedBefore[tables.closedBefore.length - 1]);
+        summary.put("calendarFrom", LocalDate.ofEpochDay(tables.firstEpochDay).toString());
+        summary.put("calendarTo", LocalDate.ofEpochDay(tables.firstEpochDay + tables.closedBefore.length - 2).toString());
+        return summary;
+    }
+
+    private FinePolicyProperties readLocation() {
+        Resource resource = resourceLoader.getResource(location);
+        Properties file;
+        try {
+            file = PropertiesLoaderUtils.loadProperties(resource);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read fine policy from " + location + ": " + e.getMessage());
+        }
+        return new Binder(new MapConfigurationPropertySource(file))
+                .bind("fines.policy", FinePolicyProperties.class)
+                .orElseGet(FinePolicyProperties::new);
+    }
+
+    static Compiled compile(FinePolicyProperties source, LocalDate today) {
+        Map<String, Integer> categoryIndex = new LinkedHashMap<>();
+        Map<String, Integer> memberTypeIndex = new LinkedHashMap<>();
+        for (FinePolicyProperties.Rule rule : source.getRules()) {
+            String category = key(rule.getCategory());
+            String memberType = key(rule.getMemberType());
+            if (!ANY.equals(category)) {
+                categoryIndex.putIfAbsent(category, categoryIndex.size() + 1);
+            }
+            if (!ANY.equals(memberType)) {
+                memberTypeIndex.putIfAbsent(memberType, memberTypeIndex.size() + 1);
+            }
+        }
+
+        // Row and column 0 stand for categories and member types without rules of their own
+        int memberTypes = memberTypeIndex.size() + 1;
+        int size = (categoryIndex.size() + 1) * memberTypes;
+        int[] loanDays = new int[size];
+        int[] graceDays = new int[size];
+        long[] rateCents = new long[size];
+        long[] maxCents = new long[size];
+
+        List<String> categories = new ArrayList<>(categoryIndex.keySet());
+        categories.add(0, ANY);
+        List<String> types = new ArrayList<>(memberTypeIndex.keySet());
+        types.add(0, ANY);
+        for (int c = 0; c < categories.size(); c++) {
+            for (int t = 0; t < types.size(); t++) {
+                FinePolicyProperties.Rule rule = resolve(source, categories.get(c), types.get(t));
+                int i = c * memberTypes + t;
+                loanDays[i] = rule.getLoanDays();
+                graceDays[i] = rule.getGraceDays();
+                rateCents[i] = toCents(rule.getRatePerDay());
+                maxCents[i] = toCents(rule.getMaxFine());
+            }
+        }
+
+        long firstEpochDay = today.minusYears(CALENDAR_YEARS).withDayOfYear(1).toEpochDay();
+        int days = (int) (today.plusYears(CALENDAR_YEARS + 1).withDayOfYear(1).toEpochDay() - firstEpochDay);
+        BitSet closed = new BitSet(days);
+        Set<DayOfWeek> closedWeekdays = EnumSet.noneOf(DayOfWeek.class);
+        closedWeekdays.addAll(source.getClosedWeekdays());
+        for (int d = 0; d < days; d++) {
+            if (closedWeekdays.contains(LocalDate.ofEpochDay(firstEpochDay + d).getDayOfWeek())) {
+                closed.set(d);
+            }
+        }
+        for (LocalDate date : source.getClosedDates()) {
+            long d = date.toEpochDay() - firstEpochDay;
+            if (d >= 0 && d < days) {
+                closed.set((int) d);
+            }
+        }
+        int[] closedBefore = new int[days + 1];
+        for (int d = 0; d < days; d++) {
+            closedBefore[d + 1] = closedBefore[d] + (closed.get(d) ? 1 : 0);
+        }
+
+        return new Compiled(categoryIndex, memberTypeIndex, memberTypes, loanDays, graceDays, rateCents, maxCents,
+                firstEpochDay, closed, closedBefore);
+    }
+
+    /**
+     * Merge matching rules from least to most specific over the defaults:
+     * any/any, any/type, category/any, category/type.
+     */
+    private static FinePolicyProperties.Rule resolve(FinePolicyProperties source, String category, String memberType) {
+        FinePolicyProperties.Rule defaults = source.getDefaults();
+        FinePolicyProperties.Rule merged = new FinePolicyProperties.Rule(category, memberType,
+                defaults.getLoanDays() != null ? defaults.getLoanDays() : FineCalculator.DEFAULT_LOAN_DAYS,
+                defaults.getGraceDays() != null ? defaults.getGraceDays() : 0,
+                defaults.getRatePerDay() != null
+                        ? defaults.getRatePerDay() : FineCalculator.toAmount(FineCalculator.FINE_PER_DAY_CENTS),
+                defaults.getMaxFine() != null
+                        ? defaults.getMaxFine() : FineCalculator.toAmount(FineCalculator.MAX_FINE_CENTS));
+
+        String[][] levels = {{ANY, ANY}, {ANY, memberType}, {category, ANY}, {category, memberType}};
+        for (String[] level : levels) {
+            for (FinePolicyProperties.Rule rule : source.getRules()) {
+                if (key(rule.getCategory()).equals(level[0]) && key(rule.getMemberType()).equals(level[1])) {
+                    if (rule.getLoanDays() != null) {
+                        merged.setLoanDays(rule.getLoanDays());
+                    }
+                    if (rule.getGraceDays() != null) {
+                        merged.setGraceDays(rule.getGraceDays());
+                    }
+                    if (rule.getRatePerDay() != null) {
+                        merged.setRatePerDay(rule.getRatePerDay());
+                    }
+                    if (rule.getMaxFine() != null) {
+                        merged.setMaxFine(rule.getMaxFine());
+                    }
+                }
+            }
+        }
+        if (merged.getLoanDays() < 1 || merged.getGraceDays() < 0
+                || merged.getRatePerDay().signum() < 0 || merged.getMaxFine().signum() < 0) {
+            throw new IllegalArgumentException("Invalid fine policy for category '" + category
+                    + "' and member type '" + memberType + "'");
+        }
+        return merged;
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? ANY : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static final class Compiled {
+        private final Map<String, Integer> categoryIndex;
+        private final Map<String, Integer> memberTypeIndex;
+        private final int memberTypes;
+        private final int[] loanDays;
+        private final int[] graceDays;
+        private final long[] rateCents;
+        private final long[] maxCents;
+        private final long firstEpochDay;
+        private final BitSet closed;
+        private final int[] closedBefore;
+        // Raw category and member type strings seen so far, to skip normalising them on every lookup
+        private final Map<String, Integer> categoryLookups = new ConcurrentHashMap<>();
+        private final Map<String, Integer> memberTypeLookups = new ConcurrentHashMap<>();
+
+        private Compiled(Map<String, Integer> categoryIndex, Map<String, Integer> memberTypeIndex, int memberTypes,
+                         int[] loanDays, int[] graceDays, long[] rateCents, long[] maxCents,
+                         long firstEpochDay, BitSet closed, int[] closedBefore) {
+            this.categoryIndex = categoryIndex;
+            this.memberTypeIndex = memberTypeIndex;
+            this.memberTypes = memberTypes;
+            this.loanDays = loanDays;
+            this.graceDays = graceDays;
+            this.rateCents = rateCents;
+            this.maxCents = maxCents;
+            this.firstEpochDay = firstEpochDay;
+            this.closed = closed;
+            this.closedBefore = closedBefore;
+        }
+
+        public int ruleIndex(String category, String memberType) {
+            int c = category != null ? lookup(categoryLookups, categoryIndex, category) : 0;
+            int t = memberType != null ? lookup(memberTypeLookups, memberTypeIndex, memberType) : 0;
+            return c * memberTypes + t;
+        }
+
+        public LocalDate dueDate(int rule, LocalDate issueDate) {
+            long due = issueDate.toEpochDay() + loanDays[rule];
+            long last = firstEpochDay + closedBefore.length - 1;
+            while (due < last && isClosed(due)) {
+                due++;
+            }
+            return LocalDate.ofEpochDay(due);
+        }
+
+        /**
+         * Fine in paise for returning on {@code returnEpochDay}: open days
+         * after the due date, less grace days, at the rule's rate and cap.
+         */
+        public long fineCents(int rule, long dueEpochDay, long returnEpochDay) {
+            if (returnEpochDay <= dueEpochDay) {
+                return 0;
+            }
+            long chargeable = (returnEpochDay - dueEpochDay)
+                    - closedBetween(dueEpochDay + 1, returnEpochDay + 1) - graceDays[rule];
+            if (chargeable <= 0) {
+                return 0;
+            }
+            return Math.min(maxCents[rule], Math.multiplyExact(chargeable, rateCents[rule]));
+        }
+
+        // Free-text categories could grow the map without bound, so it stops remembering at a limit
+        private static int lookup(Map<String, Integer> lookups, Map<String, Integer> index, String value) {
+            Integer known = lookups.get(value);
+            if (known != null) {
+                return known;
+            }
+            int resolved = index.getOrDefault(key(value), 0);
+            if (lookups.size() < MAX_LOOKUPS) {
+                lookups.put(value, resolved);
+            }
+            return resolved;
+        }
+
+        private boolean isClosed(long epochDay) {
+            long d = epochDay - firstEpochDay;
+            return d >= 0 && d < closedBefore.length - 1 && closed.get((int) d);
+        }
+
+        // Closed days in [from, to); days outside the calendar count as open
+        private long closedBetween(long from, long to) {
+            int days = closedBefore.length - 1;
+            int a = (int) Math.max(0, Math.min(days, from - firstEpochDay));
+            int b = (int) Math.max(0, Math.min(days, to - firstEpochDay));
+            return b > a ? closedBefore[b] - closedBefore[a] : 0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.library.management.service;
+
+import com.library.management.exception.JobAlreadyRunningException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves issues returned more than {@code archive.returned-after-days} ago
+ * from the live {@code issue} table to {@code issue_archive}, one id range
+ * per transaction, so circulation queries only see open and recent loans.
+ */
+@Component
+public class IssueArchiveJob {
+
+    static final String ISSUE_COLUMNS = "id, book_id, user_id, member_name, member_email, member_type, " +
+            "issue_date, due_date, return_date, fine, status, remarks, created_at, updated_at";
+
+    private static final String ARCHIVABLE = "status = 'RETURNED' AND return_date < ? AND id > ? AND id <= ?";
+
+    private static final String BATCH_END_SQL = "SELECT MAX(id) FROM (SELECT id FROM issue " +
+            "WHERE status = 'RETURNED' AND return_date < ? AND id > ? ORDER BY id LIMIT ?) batch";
+
+    private static final String COPY_SQL = "INSERT INTO issue_archive (" + ISSUE_COLUMNS + ", archived_at) " +
+            "SELECT " + ISSUE_COLUMNS + ", ? FROM issue WHERE " + ARCHIVABLE;
+
+    private static final String DELETE_SQL = "DELETE FROM issue WHERE " + ARCHIVABLE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${archive.returned-after-days:365}")
+    private int returnedAfterDays;
+
+    @Value("${archive.batch-size:1000}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+
+    @Scheduled(cron = "${archive.cron:0 30 1 * * *}")
+    public void scheduledRun() {
+        if (!running.get()) {
+            archive();
+        }
+    }
+
+    public Map<String, Object> archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new JobAlreadyRunningException("Issue archiving is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDate cutoff = LocalDate.now().minusDays(returnedAfterDays);
+            Date cutoffDate = Date.valueOf(cutoff);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            long archived = 0;
+            long afterId = 0;
+            while (true) {
+                Long lastId = jdbcTemplate.queryForObject(BATCH_END_SQL, Long.class, cutoffDate, afterId, batchSize);
+                if (lastId == null) {
+                    break;
+                }
+                long fromId = afterId;
+                archived += transactionTemplate.execute(status -> {
+                    int copied = jdbcTemplate.update(COPY_SQL, now, cutoffDate, fromId, lastId);
+                    int deleted = jdbcTemplate.update(DELETE_SQL, cutoffDate, fromId, lastId);
+                    if (copied != deleted) {
+                        throw new IllegalStateException("Archived " + copied + " issues but removed " + deleted);
+                    }
+                    return deleted;
+                });
+                afterId = lastId;
+            }
+
+            if (archived > 0) {
+                resourceVersions.issuesChanged();
+            }
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("returnedBefore", cutoff.toString());
+            stats.put("archived", archived);
+            stats.put("durationMillis", (System.nanoTime() - start) / 1_000_000);
+            lastRun = stats;
+            return stats;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+}
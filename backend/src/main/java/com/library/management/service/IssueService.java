@@ -1,60 +1,140 @@
 package com.library.management.service;
 
+import com.library.management.dto.BatchIssueRequest;
+import com.library.management.dto.BatchResult;
+import com.library.management.dto.BatchReturnRequest;
+import com.library.management.dto.BookDTO;
 import com.library.management.dto.IssueDTO;
+import com.library.management.dto.IssueFilter;
+import com.library.management.dto.PageResponse;
 import com.library.management.exception.ResourceNotFoundException;
+import com.library.management.journal.CirculationJournal;
+import com.library.management.model.ArchivedIssue;
 import com.library.management.model.Book;
 import com.library.management.model.Issue;
 import com.library.management.model.User;
+import com.library.management.repository.ArchivedIssueRepository;
 import com.library.management.repository.BookRepository;
 import com.library.management.repository.IssueRepository;
 import com.library.management.repository.UserRepository;
-import com.library.management.util.FineCalculator;
+import com.library.management.search.FacetIndex;
+import com.library.management.search.FuzzyIndex;
+import com.library.management.search.SuggestionIndex;
+import com.library.management.util.AfterCommit;
+import com.library.management.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class IssueService {
 
+    private static final String INSERT_ISSUE_SQL = "INSERT INTO issue (book_id, user_id, member_name, member_email, " +
+            "member_type, issue_date, due_date, fine, status, remarks, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Sort keys for GET /api/issues; each is paged by (column, id)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "i.id",
+            "dueDate", "i.due_date",
+            "issueDate", "i.issue_date");
+
+    private static final String STATUS_OK = "OK";
+    private static final String STATUS_FAILED = "FAILED";
+
     @Autowired
     private IssueRepository issueRepository;
 
+    @Autowired
+    private ArchivedIssueRepository archivedIssueRepository;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private EventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private CirculationJournal circulationJournal;
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private FuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageLimit;
+
     @Transactional
     public IssueDTO issueBook(IssueDTO issueDTO) {
-        Book book = bookRepository.findById(issueDTO.getBookId())
+        BookDTO book = bookCache.getById(issueDTO.getBookId())
                 .orElseThrow(() -> new ResourceNotFoundException("Book", "id", issueDTO.getBookId()));
 
         if (book.getAvailableCopies() <= 0) {
             throw new IllegalArgumentException("No available copies for book: " + book.getTitle());
         }
 
-        // Get the logged-in user
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        User user = currentUser();
+
+        // Decrease available copies; the guarded update fails if another checkout took the last copy
+        int updated = bookRepository.decrementAvailableCopies(book.getId(), LocalDateTime.now());
+        bookCache.evict(book.getId(), book.getIsbn());
+        if (updated == 0) {
+            throw new IllegalArgumentException("No available copies for book: " + book.getTitle());
+        }
 
         LocalDate issueDate = LocalDate.now();
-        LocalDate dueDate = FineCalculator.calculateDueDate(issueDate);
+        LocalDate dueDate = finePolicy.calculateDueDate(issueDate, book.getCategory(), issueDTO.getMemberType());
 
         Issue issue = Issue.builder()
-                .book(book)
+                .book(bookRepository.getReferenceById(book.getId()))
                 .user(user)
                 .memberName(issueDTO.getMemberName())
                 .memberEmail(issueDTO.getMemberEmail())
+                .memberType(issueDTO.getMemberType())
                 .issueDate(issueDate)
                 .dueDate(dueDate)
                 .status(Issue.IssueStatus.ISSUED)
@@ -62,55 +142,328 @@ public class IssueService {
                 .remarks(issueDTO.getRemarks())
                 .build();
 
-        // Decrease available copies
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookRepository.save(book);
-
         Issue savedIssue = issueRepository.save(issue);
-        return convertToDTO(savedIssue);
+        onCheckedOut(savedIssue, book.getTitle());
+        return convertToDTO(savedIssue, book.getTitle(), book.getIsbn());
+    }
+
+    /**
+     * Issue several books to one member in a single transaction. Copies are
+     * taken in book id order so concurrent batches cannot deadlock, and the
+     * issue rows are written with one JDBC batch. A book without copies fails
+     * its own item only, and a book listed again fails as a duplicate.
+     */
+    @Transactional
+    public BatchResult issueBooks(BatchIssueRequest request) {
+        User user = currentUser();
+        List<Long> bookIds = request.getBookIds();
+        Map<Long, Book> books = bookRepository.findAllById(new HashSet<>(bookIds)).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate issueDate = now.toLocalDate();
+        FinePolicy.Compiled policy = finePolicy.current();
+
+        BatchResult.Item[] items = new BatchResult.Item[bookIds.size()];
+        List<Integer> order = new ArrayList<>(bookIds.size());
+        for (int i = 0; i < bookIds.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(bookIds::get));
+
+        // The sort is stable, so the first mention of a book is the one issued
+        Set<Long> seen = new HashSet<>();
+        List<Integer> taken = new ArrayList<>();
+        for (int i : order) {
+            Long bookId = bookIds.get(i);
+            Book book = books.get(bookId);
+            if (!seen.add(bookId)) {
+                items[i] = failed(bookId, "Duplicate book ID in request");
+            } else if (book == null) {
+                items[i] = failed(bookId, "Book not found with id: '" + bookId + "'");
+            } else if (bookRepository.decrementAvailableCopies(bookId, now) == 0) {
+                items[i] = failed(bookId, "No available copies for book: " + book.getTitle());
+            } else {
+                bookCache.evict(bookId, book.getIsbn());
+                taken.add(i);
+            }
+        }
+
+        List<Issue> issues = new ArrayList<>(taken.size());
+        for (int i : taken) {
+            Book book = books.get(bookIds.get(i));
+            int rule = policy.ruleIndex(book.getCategory(), request.getMemberType());
+            issues.add(Issue.builder()
+                    .book(book)
+                    .user(user)
+                    .memberName(request.getMemberName())
+                    .memberEmail(request.getMemberEmail())
+                    .memberType(request.getMemberType())
+                    .issueDate(issueDate)
+                    .dueDate(policy.dueDate(rule, issueDate))
+                    .status(Issue.IssueStatus.ISSUED)
+                    .fine(BigDecimal.ZERO)
+                    .remarks(request.getRemarks())
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        insertIssues(issues);
+
+        for (int k = 0; k < taken.size(); k++) {
+            Issue issue = issues.get(k);
+            items[taken.get(k)] = new BatchResult.Item(issue.getBook().getId(), STATUS_OK, null, convertToDTO(issue));
+            onCheckedOut(issue, issue.getBook().getTitle());
+        }
+        return toBatchResult(Arrays.asList(items));
     }
 
     @Transactional
     public IssueDTO returnBook(Long issueId) {
-        Issue issue = issueRepository.findById(issueId)
+        Issue issue = issueRepository.findWithBookAndUserById(issueId)
                 .orElseThrow(() -> new ResourceNotFoundException("Issue", "id", issueId));
 
         if (issue.getStatus() == Issue.IssueStatus.RETURNED) {
             throw new IllegalArgumentException("Book has already been returned");
         }
 
-        LocalDate returnDate = LocalDate.now();
-        BigDecimal fine = FineCalculator.calculateFine(issue.getDueDate(), returnDate);
-
-        issue.setReturnDate(returnDate);
-        issue.setFine(fine);
-        issue.setStatus(Issue.IssueStatus.RETURNED);
+        LocalDateTime now = LocalDateTime.now();
+        IssueDTO returned = markReturned(issue, now);
+        if (returned == null) {
+            throw new IllegalArgumentException("Book has already been returned");
+        }
 
         // Increase available copies
-        Book book = issue.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookRepository.save(book);
+        restoreCopy(issue.getBook(), now);
+        return returned;
+    }
+
+    /**
+     * Return several issues in a single transaction, reporting each one.
+     * Issues are closed in id order and copies restored in book id order.
+     */
+    @Transactional
+    public BatchResult returnBooks(BatchReturnRequest request) {
+        List<Long> issueIds = request.getIssueIds();
+        Map<Long, Issue> issues = issueRepository.findAllWithBookAndUserByIdIn(new HashSet<>(issueIds)).stream()
+                .collect(Collectors.toMap(Issue::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BatchResult.Item> outcomes = new HashMap<>();
+        List<Book> restored = new ArrayList<>();
+        for (Long issueId : new TreeSet<>(issueIds)) {
+            Issue issue = issues.get(issueId);
+            IssueDTO returned = issue != null ? markReturned(issue, now) : null;
+            if (issue == null) {
+                outcomes.put(issueId, failed(issueId, "Issue not found with id: '" + issueId + "'"));
+            } else if (returned == null) {
+                outcomes.put(issueId, failed(issueId, "Book has already been returned"));
+            } else {
+                outcomes.put(issueId, new BatchResult.Item(issueId, STATUS_OK, null, returned));
+                restored.add(issue.getBook());
+            }
+        }
 
-        Issue updatedIssue = issueRepository.save(issue);
-        return convertToDTO(updatedIssue);
+        restored.sort(Comparator.comparing(Book::getId));
+        restored.forEach(book -> restoreCopy(book, now));
+
+        Set<Long> seen = new HashSet<>();
+        List<BatchResult.Item> items = new ArrayList<>(issueIds.size());
+        for (Long issueId : issueIds) {
+            items.add(seen.add(issueId) ? outcomes.get(issueId) : failed(issueId, "Duplicate issue ID in request"));
+        }
+        return toBatchResult(items);
     }
 
     public List<IssueDTO> getAllIssues() {
-        return issueRepository.findAll().stream()
+        List<IssueDTO> issues = archivedIssueRepository.findAllWithBookAndUser().stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+        issueRepository.findAllWithBookAndUser().forEach(issue -> issues.add(convertToDTO(issue)));
+        issues.sort(Comparator.comparing(IssueDTO::getId));
+        return issues;
+    }
+
+    /**
+     * The newest issues, newest first. Both tables are read newest first up
+     * to the limit, so this costs a few index rows however long the ledger is.
+     */
+    public List<IssueDTO> getRecentIssues(int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+        List<Long> ids = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT id FROM issue ORDER BY id DESC LIMIT ?", Long.class, limit));
+        ids.addAll(jdbcTemplate.queryForList(
+                "SELECT id FROM issue_archive ORDER BY id DESC LIMIT ?", Long.class, limit));
+        ids.sort(Comparator.reverseOrder());
+        return loadInOrder(ids.subList(0, Math.min(limit, ids.size())));
+    }
+
+    /**
+     * Issues matching the filter in sort order, paged by a (sort key, id)
+     * cursor. Filters become equality and range predicates on the composite
+     * issue indexes; only the page's keys are selected before loading rows.
+     * Unless the filter asks for open loans, archived issues are searched too
+     * and merged into the same order.
+     */
+    public PageResponse<IssueDTO> getIssues(IssueFilter filter, String after, int limit, String sort) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+        String column = SORT_COLUMNS.get(sort);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        boolean openOnly = false;
+        if (filter.getStatus() != null) {
+            Issue.IssueStatus status;
+            try {
+                status = Issue.IssueStatus.valueOf(filter.getStatus().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported status: " + filter.getStatus());
+            }
+            // Overdue is not stored: it is an active issue past its due date
+            if (status == Issue.IssueStatus.OVERDUE) {
+                where.append(" AND i.status = ? AND i.due_date < ?");
+                args.add(Issue.IssueStatus.ISSUED.name());
+                args.add(Date.valueOf(LocalDate.now()));
+            } else {
+                where.append(" AND i.status = ?");
+                args.add(status.name());
+            }
+            openOnly = status != Issue.IssueStatus.RETURNED;
+        }
+        if (filter.getMemberEmail() != null) {
+            where.append(" AND i.member_email = ?");
+            args.add(filter.getMemberEmail());
+        }
+        if (filter.getUserId() != null) {
+            where.append(" AND i.user_id = ?");
+            args.add(filter.getUserId());
+        }
+        if (filter.getBookId() != null) {
+            where.append(" AND i.book_id = ?");
+            args.add(filter.getBookId());
+        }
+        appendDate(where, args, "i.due_date >= ?", "dueFrom", filter.getDueFrom());
+        appendDate(where, args, "i.due_date <= ?", "dueTo", filter.getDueTo());
+        appendDate(where, args, "i.issue_date >= ?", "issuedFrom", filter.getIssuedFrom());
+        appendDate(where, args, "i.issue_date <= ?", "issuedTo", filter.getIssuedTo());
+
+        if (after != null) {
+            if ("id".equals(sort)) {
+                where.append(" AND i.id > ?");
+                args.add(CursorCodec.decodeId(CursorCodec.decode(after, sort, 1)[0]));
+            } else {
+                String[] keys = CursorCodec.decode(after, sort, 2);
+                Date key = Date.valueOf(parseDate(keys[1], "cursor"));
+                where.append(" AND (").append(column).append(" > ? OR (")
+                        .append(column).append(" = ? AND i.id > ?))");
+                args.add(key);
+                args.add(key);
+                args.add(CursorCodec.decodeId(keys[0]));
+            }
+        }
+        where.append(" ORDER BY ").append(column);
+        if (!"id".equals(sort)) {
+            where.append(", i.id");
+        }
+
+        // Fetch one extra key to learn whether another page follows
+        where.append(" LIMIT ?");
+        args.add(limit + 1);
+        String select = "SELECT i.id, " + column + " FROM ";
+        boolean byId = "id".equals(sort);
+        List<long[]> keys = selectKeys(select + "issue i" + where, args, byId);
+        if (!openOnly) {
+            keys.addAll(selectKeys(select + "issue_archive i" + where, args, byId));
+            keys.sort(Comparator.comparingLong((long[] k) -> k[1]).thenComparingLong(k -> k[0]));
+        }
+        List<Long> ids = keys.stream().limit(limit + 1).map(k -> k[0]).collect(Collectors.toList());
+        boolean hasMore = ids.size() > limit;
+        List<IssueDTO> items = loadInOrder(hasMore ? ids.subList(0, limit) : ids);
+
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            IssueDTO last = items.get(items.size() - 1);
+            String id = String.valueOf(last.getId());
+            nextCursor = switch (sort) {
+                case "dueDate" -> CursorCodec.encode(sort, id, last.getDueDate());
+                case "issueDate" -> CursorCodec.encode(sort, id, last.getIssueDate());
+                default -> CursorCodec.encode(sort, id);
+            };
+        }
+        return PageResponse.<IssueDTO>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
     }
 
     public IssueDTO getIssueById(Long id) {
-        Issue issue = issueRepository.findById(id)
+        return issueRepository.findWithBookAndUserById(id)
+                .map(this::convertToDTO)
+                .or(() -> archivedIssueRepository.findWithBookAndUserById(id).map(this::convertToDTO))
+                .orElseThrow(() -> new ResourceNotFoundException("Issue", "id", id));
+    }
+
+    public LocalDateTime getIssueUpdatedAt(Long id) {
+        return issueRepository.findUpdatedAtById(id)
+                .or(() -> archivedIssueRepository.findUpdatedAtById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Issue", "id", id));
-        return convertToDTO(issue);
     }
 
     public List<IssueDTO> getOverdueIssues() {
-        return issueRepository.findOverdueIssues().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (!overdueTracker.isReady()) {
+            return issueRepository.findOverdueIssues().stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        }
+        return loadInOrder(overdueTracker.getOverdue(null, null, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Overdue issues oldest due date first, paged by (due date, id) cursor.
+     */
+    public PageResponse<IssueDTO> getOverdueIssues(String after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+        LocalDate afterDueDate = null;
+        Long afterId = null;
+        if (after != null) {
+            String[] keys = CursorCodec.decode(after, "overdue", 2);
+            afterId = CursorCodec.decodeId(keys[0]);
+            try {
+                afterDueDate = LocalDate.parse(keys[1]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra id to learn whether another page follows
+        List<Long> ids = overdueTracker.isReady()
+                ? overdueTracker.getOverdue(afterDueDate, afterId, limit + 1)
+                : scanOverdue(afterDueDate, afterId, limit + 1);
+        boolean hasMore = ids.size() > limit;
+        List<IssueDTO> items = loadInOrder(hasMore ? ids.subList(0, limit) : ids);
+
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            IssueDTO last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode("overdue", String.valueOf(last.getId()), last.getDueDate());
+        }
+        return PageResponse.<IssueDTO>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
     }
 
     public List<IssueDTO> getActiveIssues() {
@@ -120,24 +473,184 @@ public class IssueService {
     }
 
     public Map<String, Object> getDashboardStats() {
+        if (dashboardCounters.isReady()) {
+            return dashboardCounters.getStats();
+        }
+
         Map<String, Object> stats = new HashMap<>();
-        long totalBooks = bookRepository.count();
-        long availableBooks = bookRepository.findAll().stream()
-                .filter(b -> b.getAvailableCopies() > 0)
-                .count();
-        long issuedBooks = issueRepository.countActiveIssues();
-        long overdueBooks = issueRepository.countOverdueIssues();
-
-        stats.put("totalBooks", totalBooks);
-        stats.put("availableBooks", availableBooks);
-        stats.put("issuedBooks", issuedBooks);
-        stats.put("overdueBooks", overdueBooks);
+        stats.put("totalBooks", bookRepository.count());
+        stats.put("availableBooks", bookRepository.countByAvailableCopiesGreaterThan(0));
+        stats.put("issuedBooks", issueRepository.countActiveIssues());
+        stats.put("overdueBooks", issueRepository.countOverdueIssues());
         stats.put("totalUsers", userRepository.count());
-
         return stats;
     }
 
-    private IssueDTO convertToDTO(Issue issue) {
+    // Used only until the tracker has loaded at startup
+    private List<Long> scanOverdue(LocalDate afterDueDate, Long afterId, int limit) {
+        Comparator<Issue> order = Comparator.comparing(Issue::getDueDate).thenComparing(Issue::getId);
+        return issueRepository.findOverdueIssues().stream()
+                .filter(i -> afterDueDate == null || i.getDueDate().isAfter(afterDueDate)
+                        || (i.getDueDate().isEqual(afterDueDate) && i.getId() > afterId))
+                .sorted(order)
+                .limit(limit)
+                .map(Issue::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static void appendDate(StringBuilder sql, List<Object> args, String predicate, String name, String value) {
+        if (value != null) {
+            sql.append(" AND ").append(predicate);
+            args.add(Date.valueOf(parseDate(value, name)));
+        }
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // (id, sort key) pairs; date keys are compared as epoch days
+    private List<long[]> selectKeys(String sql, List<Object> args, boolean byId) {
+        return jdbcTemplate.query(sql, (rs, row) -> new long[]{rs.getLong(1),
+                byId ? rs.getLong(2) : rs.getDate(2).toLocalDate().toEpochDay()}, args.toArray());
+    }
+
+    // Ids missing from the live table are looked up in the archive
+    private List<IssueDTO> loadInOrder(List<Long> ids) {
+        Map<Long, IssueDTO> issues = issueRepository.findAllWithBookAndUserByIdIn(ids).stream()
+                .collect(Collectors.toMap(Issue::getId, this::convertToDTO));
+        if (issues.size() < ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !issues.containsKey(id)).collect(Collectors.toList());
+            archivedIssueRepository.findAllWithBookAndUserByIdIn(missing)
+                    .forEach(issue -> issues.put(issue.getId(), convertToDTO(issue)));
+        }
+        return ids.stream()
+                .map(issues::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private User currentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    }
+
+    private void insertIssues(List<Issue> issues) {
+        if (issues.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_ISSUE_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Issue issue = issues.get(i);
+                        ps.setLong(1, issue.getBook().getId());
+                        ps.setLong(2, issue.getUser().getId());
+                        ps.setString(3, issue.getMemberName());
+                        ps.setString(4, issue.getMemberEmail());
+                        ps.setString(5, issue.getMemberType());
+                        ps.setDate(6, Date.valueOf(issue.getIssueDate()));
+                        ps.setDate(7, Date.valueOf(issue.getDueDate()));
+                        ps.setBigDecimal(8, issue.getFine());
+                        ps.setString(9, issue.getStatus().name());
+                        ps.setString(10, issue.getRemarks());
+                        ps.setTimestamp(11, Timestamp.valueOf(issue.getCreatedAt()));
+                        ps.setTimestamp(12, Timestamp.valueOf(issue.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return issues.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < issues.size(); i++) {
+            issues.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    /**
+     * Close an issue with a guarded update. Returns null when it was already
+     * returned, so only one of two concurrent returns succeeds.
+     */
+    private IssueDTO markReturned(Issue issue, LocalDateTime now) {
+        LocalDate returnDate = now.toLocalDate();
+        BigDecimal fine = finePolicy.calculateFine(issue.getDueDate(), returnDate,
+                issue.getBook().getCategory(), issue.getMemberType());
+        if (issueRepository.markReturned(issue.getId(), returnDate, fine, now) == 0) {
+            return null;
+        }
+        Long bookId = issue.getBook().getId();
+        AfterCommit.run(() -> {
+            overdueTracker.onReturned(issue.getId());
+            eventBroadcaster.publish(EventBroadcaster.ISSUE_RETURNED, Map.of("id", issue.getId(), "bookId", bookId,
+                    "fine", fine, "returnDate", returnDate.toString()));
+            circulationJournal.returned(issue.getId(), bookId, fine.movePointRight(2).longValue());
+        });
+
+        IssueDTO returned = convertToDTO(issue);
+        returned.setReturnDate(returnDate.toString());
+        returned.setFine(fine);
+        returned.setStatus(Issue.IssueStatus.RETURNED.name());
+        returned.setUpdatedAt(now.toString());
+        return returned;
+    }
+
+    private void restoreCopy(Book book, LocalDateTime now) {
+        int restored = bookRepository.incrementAvailableCopies(book.getId(), now);
+        bookCache.evict(book.getId(), book.getIsbn());
+        if (restored > 0) {
+            AfterCommit.run(() -> {
+                int change = facetIndex.onCopiesChanged(book.getId(), 1);
+                dashboardCounters.onAvailabilityChanged(change);
+                eventBroadcaster.publishAvailability(book.getId(), change);
+            });
+        }
+        resourceVersions.booksChanged();
+        resourceVersions.issuesChanged();
+    }
+
+    private void onCheckedOut(Issue issue, String bookTitle) {
+        Long bookId = issue.getBook().getId();
+        AfterCommit.run(() -> {
+            suggestionIndex.onBookBorrowed(bookId);
+            int change = facetIndex.onCopiesChanged(bookId, -1);
+            dashboardCounters.onAvailabilityChanged(change);
+            eventBroadcaster.publishAvailability(bookId, change);
+            fuzzyIndex.onBookBorrowed(bookId);
+            overdueTracker.onIssued(issue.getId(), issue.getDueDate());
+            // Carries what an activity list shows, so dashboards need not fetch the issue
+            eventBroadcaster.publish(EventBroadcaster.ISSUE_ISSUED, Map.of("id", issue.getId(), "bookId", bookId,
+                    "bookTitle", bookTitle, "memberName", issue.getMemberName(),
+                    "issueDate", issue.getIssueDate().toString(), "dueDate", issue.getDueDate().toString(),
+                    "status", Issue.IssueStatus.ISSUED.name()));
+            circulationJournal.issued(issue.getId(), bookId, issue.getDueDate().toEpochDay());
+        });
+        resourceVersions.booksChanged();
+        resourceVersions.issuesChanged();
+    }
+
+    private static BatchResult.Item failed(Long id, String message) {
+        return new BatchResult.Item(id, STATUS_FAILED, message, null);
+    }
+
+    private static BatchResult toBatchResult(List<BatchResult.Item> items) {
+        int succeeded = (int) items.stream().filter(item -> STATUS_OK.equals(item.getStatus())).count();
+        return BatchResult.builder()
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .items(items)
+                .build();
+    }
+
+    private IssueDTO convertToDTO(ArchivedIssue issue) {
         return IssueDTO.builder()
                 .id(issue.getId())
                 .bookId(issue.getBook().getId())
@@ -147,6 +660,33 @@ public class IssueService {
                 .userName(issue.getUser().getName())
                 .memberName(issue.getMemberName())
                 .memberEmail(issue.getMemberEmail())
+                .memberType(issue.getMemberType())
+                .issueDate(issue.getIssueDate().toString())
+                .dueDate(issue.getDueDate().toString())
+                .returnDate(issue.getReturnDate() != null ? issue.getReturnDate().toString() : null)
+                .fine(issue.getFine())
+                .status(issue.getStatus().name())
+                .remarks(issue.getRemarks())
+                .createdAt(issue.getCreatedAt() != null ? issue.getCreatedAt().toString() : null)
+                .updatedAt(issue.getUpdatedAt() != null ? issue.getUpdatedAt().toString() : null)
+                .build();
+    }
+
+    private IssueDTO convertToDTO(Issue issue) {
+        return convertToDTO(issue, issue.getBook().getTitle(), issue.getBook().getIsbn());
+    }
+
+    private IssueDTO convertToDTO(Issue issue, String bookTitle, String bookIsbn) {
+        return IssueDTO.builder()
+                .id(issue.getId())
+                .bookId(issue.getBook().getId())
+                .bookTitle(bookTitle)
+                .bookIsbn(bookIsbn)
+                .userId(issue.getUser().getId())
+                .userName(issue.getUser().getName())
+                .memberName(issue.getMemberName())
+                .memberEmail(issue.getMemberEmail())
+                .memberType(issue.getMemberType())
                 .issueDate(issue.getIssueDate() != null ? issue.getIssueDate().toString() : null)
                 .dueDate(issue.getDueDate() != null ? issue.getDueDate().toString() : null)
                 .returnDate(issue.getReturnDate() != null ? issue.getReturnDate().toString() : null)
@@ -0,0 +1,183 @@
+package com.library.management.service;
+
+import com.library.management.event.IssuesOverdueEvent;
+import com.library.management.repository.IssueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active issues bucketed by due date, loaded once and kept current by
+ * checkouts and returns. Everything due before today is overdue, so the
+ * overdue count is a counter adjusted on writes and advanced a day's bucket
+ * at a time when the date rolls over, and overdue pages are walks over the
+ * oldest buckets.
+ */
+@Component
+public class OverdueTracker {
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<LocalDate, NavigableSet<Long>> byDueDate = new TreeMap<>();
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+    private volatile LocalDate today = LocalDate.now();
+    private long overdueCount;
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            byDueDate.clear();
+            dueDates.clear();
+            today = LocalDate.now();
+            overdueCount = 0;
+
+            for (Object[] row : issueRepository.findActiveDueDates()) {
+                add((Long) row[0], (LocalDate) row[1]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void onIssued(Long issueId, LocalDate dueDate) {
+        lock.writeLock().lock();
+        try {
+            remove(issueId);
+            add(issueId, dueDate);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onReturned(Long issueId) {
+        lock.writeLock().lock();
+        try {
+            remove(issueId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getActiveCount() {
+        rollOverIfNeeded();
+        lock.readLock().lock();
+        try {
+            return dueDates.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getOverdueCount() {
+        rollOverIfNeeded();
+        lock.readLock().lock();
+        try {
+            return overdueCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Overdue issue ids ordered by due date then id, starting after the given
+     * position (both null for the first page).
+     */
+    public List<Long> getOverdue(LocalDate afterDueDate, Long afterId, int limit) {
+        rollOverIfNeeded();
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDate, NavigableSet<Long>> overdue = byDueDate.headMap(today, false);
+            if (afterDueDate != null) {
+                overdue = overdue.tailMap(afterDueDate, true);
+            }
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, 256));
+            for (Map.Entry<LocalDate, NavigableSet<Long>> bucket : overdue.entrySet()) {
+                Set<Long> bucketIds = bucket.getKey().equals(afterDueDate) && afterId != null
+                        ? bucket.getValue().tailSet(afterId, false)
+                        : bucket.getValue();
+                for (Long id : bucketIds) {
+                    if (ids.size() == limit) {
+                        return ids;
+                    }
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "${overdue.rollover-cron:0 0 0 * * *}")
+    public void rollOver() {
+        LocalDate now = LocalDate.now();
+        List<Long> becameOverdue = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            if (!now.isAfter(today)) {
+                return;
+            }
+            for (NavigableSet<Long> bucket : byDueDate.subMap(today, true, now, false).values()) {
+                becameOverdue.addAll(bucket);
+            }
+            overdueCount += becameOverdue.size();
+            today = now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!becameOverdue.isEmpty()) {
+            eventPublisher.publishEvent(new IssuesOverdueEvent(now, becameOverdue));
+        }
+    }
+
+    // Reads catch up on a missed or late scheduled roll-over themselves
+    private void rollOverIfNeeded() {
+        if (LocalDate.now().isAfter(today)) {
+            rollOver();
+        }
+    }
+
+    private void add(Long issueId, LocalDate dueDate) {
+        dueDates.put(issueId, dueDate);
+        byDueDate.computeIfAbsent(dueDate, d -> new TreeSet<>()).add(issueId);
+        if (dueDate.isBefore(today)) {
+            overdueCount++;
+        }
+    }
+
+    private void remove(Long issueId) {
+        LocalDate dueDate = dueDates.remove(issueId);
+        if (dueDate == null) {
+            return;
+        }
+        NavigableSet<Long> bucket = byDueDate.get(dueDate);
+        bucket.remove(issueId);
+        if (bucket.isEmpty()) {
+            byDueDate.remove(dueDate);
+        }
+        if (dueDate.isBefore(today)) {
+            overdueCount--;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.management.service;
+
+import com.library.management.util.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the catalog and the issue ledger, bumped after every
+ * committed write. Collection ETags are built from them, so a conditional GET
+ * on an unchanged collection is answered without touching the database.
+ */
+@Component
+public class ResourceVersions {
+
+    // Distinguishes counters of this process from those of an earlier run
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong books = new AtomicLong();
+    private final AtomicLong issues = new AtomicLong();
+
+    public void booksChanged() {
+        AfterCommit.run(books::incrementAndGet);
+    }
+
+    public void issuesChanged() {
+        AfterCommit.run(issues::incrementAndGet);
+    }
+
+    public String booksETag() {
+        return "\"books-" + epoch + "-" + books.get() + "\"";
+    }
+
+    public String issuesETag() {
+        return "\"issues-" + epoch + "-" + issues.get() + "\"";
+    }
+
+    /**
+     * The overdue list also changes when the date rolls over.
+     */
+    public String overdueIssuesETag() {
+        return "\"overdue-" + epoch + "-" + issues.get() + "-" + LocalDate.now() + "\"";
+    }
+}
@@ -0,0 +1,316 @@
+package com.library.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.dto.ImportReport;
+import com.library.management.dto.UserDTO;
+import com.library.management.model.User;
+import com.library.management.repository.UserRepository;
+import com.library.management.security.TokenRevocations;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON member file and provisions accounts in batches:
+ * emails are checked against the users table once per batch, passwords are
+ * hashed in parallel on a dedicated fork-join pool (apart from the login
+ * hashing pool, so onboarding does not hold up sign-ins), and rows are
+ * inserted with JDBC batches.
+ */
+@Service
+public class UserImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO users (name, email, password, role, phone, address, " +
+            "is_active, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${import.users.batch-size:500}")
+    private int batchSize;
+
+    @Value("${import.users.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    @Value("${import.max-errors:1000}")
+    private int maxErrors;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(hashingParallelism > 0
+                ? hashingParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Rows that are not listed in the report's errors were created; the
+     * others are INVALID, DUPLICATE (in the file or already registered) or
+     * FAILED at insert.
+     */
+    public ImportReport importUsers(InputStream input, String format) throws IOException {
+        boolean csv = BookImportService.isCsv(format);
+        long start = System.nanoTime();
+        ImportReport report = ImportReport.builder().errors(new ArrayList<>()).build();
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+                report.setTotalRows(report.getTotalRows() + 1);
+
+                UserDTO user;
+                try {
+                    user = csv ? fromCsv(BookImportService.parseCsvLine(line), columns)
+                            : objectMapper.readValue(line, UserDTO.class);
+                } catch (JsonProcessingException e) {
+                    reject(report, lineNumber, null, "INVALID", e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    reject(report, lineNumber, null, "INVALID", e.getMessage());
+                    continue;
+                }
+
+                String violations = validate(user);
+                if (violations != null) {
+                    reject(report, lineNumber, user.getEmail(), "INVALID", violations);
+                    continue;
+                }
+                if (!seenEmails.add(user.getEmail())) {
+                    reject(report, lineNumber, user.getEmail(), "DUPLICATE", "Duplicate email in file");
+                    continue;
+                }
+
+                batch.add(new PendingRow(lineNumber, user, User.Role.valueOf(user.getRole())));
+                if (batch.size() >= batchSize) {
+                    flush(batch, report);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setDurationMillis(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos > 0 ? report.getTotalRows() * 1_000_000_000.0 / elapsedNanos : 0.0);
+        return report;
+    }
+
+    private void flush(List<PendingRow> batch, ImportReport report) {
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                batch.stream().map(row -> row.user().getEmail()).collect(Collectors.toList())));
+
+        List<PendingRow> rows = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (existing.contains(row.user().getEmail())) {
+                reject(report, row.line(), row.user().getEmail(), "DUPLICATE", "Email already exists");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hash(rows);
+        List<HashedRow> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            hashed.add(new HashedRow(rows.get(i), hashes.get(i)));
+        }
+
+        List<HashedRow> inserted = new ArrayList<>(hashed.size());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, hashed, hashed.size(), this::bind));
+            inserted.addAll(hashed);
+        } catch (DataAccessException e) {
+            // One bad row fails the whole batch; retry row by row to report it
+            for (HashedRow row : hashed) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                    inserted.add(row);
+                } catch (DataAccessException rowError) {
+                    reject(report, row.pending().line(), row.pending().user().getEmail(), "FAILED",
+                            rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        report.setImported(report.getImported() + inserted.size());
+        for (HashedRow row : inserted) {
+            tokenRevocations.update(row.pending().user().getEmail(), 0, row.pending().role().name(), true);
+        }
+        dashboardCounters.onUsersAdded(inserted.size());
+    }
+
+    // BCrypt dominates an import; the batch is spread over the pool in input order
+    private List<String> hash(List<PendingRow> rows) {
+        try {
+            return pool.submit(() -> rows.parallelStream()
+                    .map(row -> passwordEncoder.encode(row.user().getPassword()))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Member import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void bind(PreparedStatement ps, HashedRow row) throws SQLException {
+        UserDTO user = row.pending().user();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        ps.setString(1, user.getName());
+        ps.setString(2, user.getEmail());
+        ps.setString(3, row.passwordHash());
+        ps.setString(4, row.pending().role().name());
+        ps.setString(5, user.getPhone());
+        ps.setString(6, user.getAddress());
+        ps.setBoolean(7, true);
+        ps.setInt(8, 0);
+        ps.setTimestamp(9, now);
+        ps.setTimestamp(10, now);
+    }
+
+    private void reject(ImportReport report, long line, String email, String status, String message) {
+        if ("DUPLICATE".equals(status)) {
+            report.setDuplicates(report.getDuplicates() + 1);
+        } else {
+            report.setFailed(report.getFailed() + 1);
+        }
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(new ImportReport.RowError(line, email, status, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private String validate(UserDTO user) {
+        List<String> problems = new ArrayList<>();
+        for (ConstraintViolation<UserDTO> violation : validator.validate(user)) {
+            problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (user.getPassword() == null) {
+            problems.add("password: Password is required");
+        }
+        if (user.getRole() == null) {
+            user.setRole(User.Role.LIBRARIAN.name());
+        } else {
+            try {
+                user.setRole(User.Role.valueOf(user.getRole().trim().toUpperCase(Locale.ROOT)).name());
+            } catch (IllegalArgumentException e) {
+                problems.add("role: Unsupported role " + user.getRole());
+            }
+        }
+        if (problems.isEmpty()) {
+            return null;
+        }
+        Collections.sort(problems);
+        return String.join("; ", problems);
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        String[] names = BookImportService.parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""), i);
+        }
+        for (String required : List.of("name", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static UserDTO fromCsv(String[] values, Map<String, Integer> columns) {
+        return UserDTO.builder()
+                .name(column(values, columns, "name"))
+                .email(column(values, columns, "email"))
+                .password(column(values, columns, "password"))
+                .role(column(values, columns, "role"))
+                .phone(column(values, columns, "phone"))
+                .address(column(values, columns, "address"))
+                .build();
+    }
+
+    private static String column(String[] values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private record PendingRow(long line, UserDTO user, User.Role role) {
+    }
+
+    private record HashedRow(PendingRow pending, String passwordHash) {
+    }
+}
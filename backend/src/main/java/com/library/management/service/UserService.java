@@ -1,10 +1,15 @@
 package com.library.management.service;
 
+import com.library.management.dto.PageResponse;
 import com.library.management.dto.UserDTO;
 import com.library.management.exception.ResourceNotFoundException;
 import com.library.management.model.User;
 import com.library.management.repository.UserRepository;
+import com.library.management.security.TokenRevocations;
+import com.library.management.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -20,12 +25,42 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageLimit;
+
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    public PageResponse<UserDTO> getUsers(String after, int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+
+        long afterId = after != null ? CursorCodec.decodeId(CursorCodec.decode(after, "id", 1)[0]) : 0L;
+        List<User> users = userRepository.findPageAfterId(afterId, PageRequest.of(0, limit + 1));
+
+        boolean hasMore = users.size() > limit;
+        if (hasMore) {
+            users = users.subList(0, limit);
+        }
+
+        return PageResponse.<UserDTO>builder()
+                .items(users.stream().map(this::convertToDTO).collect(Collectors.toList()))
+                .nextCursor(hasMore ? CursorCodec.encode("id", String.valueOf(users.get(users.size() - 1).getId())) : null)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
+    }
+
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
@@ -35,11 +70,16 @@ public class UserService {
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        String previousEmail = user.getEmail();
+        User.Role previousRole = user.getRole();
+        boolean wasActive = user.getIsActive();
+        boolean passwordChanged = false;
 
         user.setName(userDTO.getName() != null ? userDTO.getName() : user.getName());
         user.setEmail(userDTO.getEmail() != null ? userDTO.getEmail() : user.getEmail());
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            passwordChanged = true;
         }
         if (userDTO.getRole() != null) {
             user.setRole(User.Role.valueOf(userDTO.getRole()));
@@ -50,7 +90,19 @@ public class UserService {
             user.setIsActive(userDTO.getIsActive());
         }
 
+        // Tokens carry the email, role and version; any change to those or to
+        // the credentials invalidates the tokens issued so far
+        if (passwordChanged || user.getRole() != previousRole || !user.getEmail().equals(previousEmail)
+                || (wasActive && !user.getIsActive())) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+
         User updatedUser = userRepository.save(user);
+        if (!updatedUser.getEmail().equals(previousEmail)) {
+            tokenRevocations.revoke(previousEmail);
+        }
+        tokenRevocations.update(updatedUser.getEmail(), updatedUser.getTokenVersion(),
+                updatedUser.getRole().name(), updatedUser.getIsActive());
         return convertToDTO(updatedUser);
     }
 
@@ -58,6 +110,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         userRepository.delete(user);
+        tokenRevocations.revoke(user.getEmail());
+        dashboardCounters.onUserRemoved();
     }
 
     private UserDTO convertToDTO(User user) {
@@ -0,0 +1,164 @@
+package com.library.management.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache whose entries expire after a time to live, for lookups
+ * on every request. Reads take no lock: entries live in a ConcurrentHashMap
+ * and carry their own expiry and last read time. When a put takes the cache
+ * past its bound, a few entries are sampled and the expired or least
+ * recently read one is evicted, an approximate LRU with no shared access
+ * order. Hit, miss, eviction and expiration counts are kept for sizing.
+ */
+public class ConcurrentBoundedCache<K, V> {
+
+    private static final int SAMPLE_SIZE = 8;
+    // Last read times are only refreshed this often, so hot entries are not written on every read
+    private static final long ACCESS_GRANULARITY_MILLIS = 1000;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    // Keys to sample from, refreshed once half of them have been used
+    private final Object evictionLock = new Object();
+    private Object[] candidates = new Object[0];
+    private int samplesTaken;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ConcurrentBoundedCache(int maxSize, long ttlMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Return the cached value, or null when absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            if (entry.expiresAt > now) {
+                if (now - entry.lastRead > ACCESS_GRANULARITY_MILLIS) {
+                    entry.lastRead = now;
+                }
+                hits.increment();
+                return entry.value;
+            }
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        if (entries.put(key, new Entry<>(value, now + ttlMillis, now)) == null && entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Drop expired entries so they stop counting against the size bound.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt <= now && entries.remove(key, entry)) {
+                expirations.increment();
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("hitRate", requests > 0 ? (double) hitCount / requests : 0.0);
+        return stats;
+    }
+
+    /**
+     * Evict sampled entries until the cache is back within its bound. Keys
+     * are sampled from a copy of the key set that is refreshed only after
+     * half its length in samples, so each eviction costs a few lookups. Keys
+     * added since the copy are not candidates, which suits LRU: they are the
+     * newest.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            long now = System.currentTimeMillis();
+            while (entries.size() > maxSize) {
+                if (samplesTaken >= candidates.length / 2) {
+                    candidates = entries.keySet().toArray();
+                    samplesTaken = 0;
+                    if (candidates.length == 0) {
+                        return;
+                    }
+                }
+                samplesTaken++;
+
+                Object victim = null;
+                Entry<V> victimEntry = null;
+                for (int i = 0; i < SAMPLE_SIZE; i++) {
+                    Object key = candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+                    Entry<V> entry = entries.get(key);
+                    if (entry != null && (victimEntry == null || rank(entry, now) < rank(victimEntry, now))) {
+                        victim = key;
+                        victimEntry = entry;
+                    }
+                }
+                if (victim != null && entries.remove(victim, victimEntry)) {
+                    if (victimEntry.expiresAt <= now) {
+                        expirations.increment();
+                    } else {
+                        evictions.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    // Expired entries go first, then the least recently read
+    private static long rank(Entry<?> entry, long now) {
+        return entry.expiresAt <= now ? Long.MIN_VALUE : entry.lastRead;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+        volatile long lastRead;
+
+        Entry(V value, long expiresAt, long lastRead) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastRead = lastRead;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.library.management.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+public class ConditionalGet {
+
+    /**
+     * Answer 304 when the request's validators match, otherwise load the body.
+     * Responses are marked no-cache so browsers always revalidate.
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        return respond(request, etag, null, body);
+    }
+
+    public static <T> ResponseEntity<T> respond(WebRequest request, String etag, LocalDateTime lastModified,
+                                                Supplier<T> body) {
+        long lastModifiedMillis = lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        if (request.checkNotModified(etag, lastModifiedMillis)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (lastModifiedMillis >= 0) {
+            response.lastModified(lastModifiedMillis);
+        }
+        return response.body(body.get());
+    }
+
+    /**
+     * Strong ETag for a single row, derived from its id and last update time.
+     */
+    public static String rowETag(String type, Long id, LocalDateTime updatedAt) {
+        return "\"" + type + "-" + id + "-" + (updatedAt != null ? updatedAt.toString() : "0") + "\"";
+    }
+}
@@ -0,0 +1,46 @@
+package com.library.management.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorCodec {
+
+    private static final String SEPARATOR = "\u001F";
+
+    /**
+     * Encode the sort name and key values of the last row into an opaque cursor.
+     */
+    public static String encode(String sort, String... keys) {
+        String raw = sort + SEPARATOR + String.join(SEPARATOR, keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode}, checking it was issued for the same sort.
+     */
+    public static String[] decode(String cursor, String sort, int keyCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != keyCount + 1 || !parts[0].equals(sort)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 1, keys, 0, keyCount);
+        return keys;
+    }
+
+    public static long decodeId(String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
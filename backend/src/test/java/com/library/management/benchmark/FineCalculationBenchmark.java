@@ -0,0 +1,119 @@
+package com.library.management.benchmark;
+
+import com.library.management.config.FinePolicyProperties;
+import com.library.management.service.FinePolicy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fines for a nightly statement of open loans: the original flat BigDecimal
+ * calculation against the compiled {@link FinePolicy} that checkout, return
+ * and the accrual job use. The policy has category and member type rules,
+ * grace days and Sundays closed, so each loan pays for the rule lookup and
+ * the closed-day count as it does in production.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main FineCalculation
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FineCalculationBenchmark {
+
+    private static final int LOANS = 100_000;
+    private static final BigDecimal FINE_PER_DAY = new BigDecimal("5.00");
+    private static final BigDecimal MAX_FINE = new BigDecimal("500.00");
+    private static final String[] CATEGORIES = {"Fiction", "Reference", "Science", "History", "Children"};
+    private static final String[] MEMBER_TYPES = {"STUDENT", "FACULTY", "STAFF"};
+
+    private FinePolicy finePolicy;
+    private LocalDate[] dueDates;
+    private long[] dueEpochDays;
+    private String[] categories;
+    private String[] memberTypes;
+    private LocalDate today;
+    private long todayEpochDay;
+
+    @Setup
+    public void setUp() {
+        FinePolicyProperties properties = new FinePolicyProperties();
+        properties.setRules(List.of(
+                new FinePolicyProperties.Rule("Reference", null, 7, null, new BigDecimal("10.00"), null),
+                new FinePolicyProperties.Rule(null, "FACULTY", 28, 3, null, null),
+                new FinePolicyProperties.Rule("Children", "STUDENT", null, 2, new BigDecimal("2.00"),
+                        new BigDecimal("100.00"))));
+        properties.setClosedWeekdays(List.of(DayOfWeek.SUNDAY));
+        finePolicy = new FinePolicy();
+        ReflectionTestUtils.setField(finePolicy, "properties", properties);
+        finePolicy.init();
+
+        Random random = new Random(7);
+        today = LocalDate.of(2025, 6, 1);
+        todayEpochDay = today.toEpochDay();
+        dueDates = new LocalDate[LOANS];
+        dueEpochDays = new long[LOANS];
+        categories = new String[LOANS];
+        memberTypes = new String[LOANS];
+        for (int i = 0; i < LOANS; i++) {
+            // Mostly a few days late, some past the cap, some not yet due
+            dueDates[i] = today.minusDays(random.nextInt(150) - 20);
+            dueEpochDays[i] = dueDates[i].toEpochDay();
+            categories[i] = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            memberTypes[i] = MEMBER_TYPES[random.nextInt(MEMBER_TYPES.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public void bigDecimal(Blackhole blackhole) {
+        for (LocalDate dueDate : dueDates) {
+            blackhole.consume(legacyFine(dueDate, today));
+        }
+    }
+
+    // Return path: rule lookup, paise, then an amount for the entity
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public void policyAmount(Blackhole blackhole) {
+        for (int i = 0; i < LOANS; i++) {
+            blackhole.consume(finePolicy.calculateFine(dueDates[i], today, categories[i], memberTypes[i]));
+        }
+    }
+
+    // Accrual job path: one snapshot, rule lookup and paise per loan
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public long policyPaise() {
+        FinePolicy.Compiled policy = finePolicy.current();
+        long total = 0;
+        for (int i = 0; i < LOANS; i++) {
+            total += policy.fineCents(policy.ruleIndex(categories[i], memberTypes[i]), dueEpochDays[i], todayEpochDay);
+        }
+        return total;
+    }
+
+    // FineCalculator.calculateFine before fines moved to paise and the policy
+    private static BigDecimal legacyFine(LocalDate dueDate, LocalDate returnDate) {
+        if (returnDate == null || !returnDate.isAfter(dueDate)) {
+            return BigDecimal.ZERO;
+        }
+        long daysLate = ChronoUnit.DAYS.between(dueDate, returnDate);
+        BigDecimal fine = FINE_PER_DAY.multiply(BigDecimal.valueOf(daysLate));
+        return fine.compareTo(MAX_FINE) > 0 ? MAX_FINE : fine;
+    }
+}
@@ -0,0 +1,174 @@
+package com.library.management.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checkouts and returns all on one title against a running server: the
+ * guarded available-copies updates serialise on that book's row, so this
+ * shows how circulation throughput holds up as more clients hit the same
+ * book. For each thread count a fresh title with plenty of copies is
+ * created, checked out for a fixed period, then every issue is returned.
+ * Reports checkouts/s and returns/s with their latency.
+ *
+ * Start the server without rate limiting, so every request reaches the
+ * service, then run the harness:
+ * <pre>
+ * java -jar target/management-1.0.0.jar --ratelimit.enabled=false
+ * mvn -q test-compile
+ * java -cp target/test-classes com.library.management.benchmark.HotTitleCheckoutBenchmark \
+ *     [baseUrl] [seconds] [threadCounts]
+ * </pre>
+ * Defaults are http://localhost:8080, 10 seconds of checkouts and 1,4,16 threads.
+ */
+public class HotTitleCheckoutBenchmark {
+
+    private static final String LOGIN_BODY = "{\"email\":\"admin@library.com\",\"password\":\"Admin@123\"}";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final int COPIES = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String threadCounts = args.length > 2 ? args[2] : "1,4,16";
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(login.body());
+        if (login.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed with " + login.statusCode() + ": " + login.body());
+        }
+        String token = matcher.group(1);
+
+        System.out.printf("%-8s %-40s %s%n", "threads", "checkouts", "returns");
+        for (String count : threadCounts.split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            long bookId = createBook(client, baseUrl, token);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+            // Checkouts for the fixed period, keeping the issue ids for the returns
+            Queue<Long> issueIds = new ConcurrentLinkedQueue<>();
+            List<Long> checkoutNanos = Collections.synchronizedList(new ArrayList<>());
+            Map<Integer, Integer> checkoutStatuses = new ConcurrentSkipListMap<>();
+            HttpRequest checkout = request(baseUrl + "/api/issues", token)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"bookId\":" + bookId
+                            + ",\"memberName\":\"Bench Member\",\"memberEmail\":\"bench@example.com\""
+                            + ",\"memberType\":\"STUDENT\"}"))
+                    .build();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            long checkoutElapsed = run(pool, threads, () -> {
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    HttpResponse<String> response = client.send(checkout, HttpResponse.BodyHandlers.ofString());
+                    checkoutNanos.add(System.nanoTime() - begin);
+                    checkoutStatuses.merge(response.statusCode(), 1, Integer::sum);
+                    Matcher id = ID.matcher(response.body());
+                    if (response.statusCode() == 200 && id.find()) {
+                        issueIds.add(Long.parseLong(id.group(1)));
+                    }
+                }
+            });
+
+            // Return every issue taken above, as fast as the same threads allow
+            List<Long> returnNanos = Collections.synchronizedList(new ArrayList<>());
+            Map<Integer, Integer> returnStatuses = new ConcurrentSkipListMap<>();
+            int issued = issueIds.size();
+            long returnElapsed = run(pool, threads, () -> {
+                Long issueId;
+                while ((issueId = issueIds.poll()) != null) {
+                    HttpRequest giveBack = request(baseUrl + "/api/issues/return/" + issueId, token)
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    long begin = System.nanoTime();
+                    int status = client.send(giveBack, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    returnNanos.add(System.nanoTime() - begin);
+                    returnStatuses.merge(status, 1, Integer::sum);
+                }
+            });
+            pool.shutdown();
+
+            System.out.printf("%-8d %-40s %s%n", threads,
+                    summary(checkoutNanos, checkoutElapsed, checkoutStatuses),
+                    summary(returnNanos, returnElapsed, returnStatuses));
+            if (returnNanos.size() != issued) {
+                System.out.printf("         %d issues were not returned%n", issued - returnNanos.size());
+            }
+        }
+    }
+
+    private interface Loop {
+        void run() throws Exception;
+    }
+
+    /**
+     * Start the loop on every thread at once and return the wall time until all finish.
+     */
+    private static long run(ExecutorService pool, int threads, Loop loop) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                loop.run();
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static long createBook(HttpClient client, String baseUrl, String token) throws Exception {
+        String isbn = String.format("979%010d", System.nanoTime() % 10_000_000_000L);
+        HttpResponse<String> response = client.send(request(baseUrl + "/api/books", token)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Hot Title " + isbn
+                        + "\",\"author\":\"Bench Author\",\"isbn\":\"" + isbn
+                        + "\",\"category\":\"Fiction\",\"quantity\":" + COPIES + "}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher id = ID.matcher(response.body());
+        if (response.statusCode() != 200 || !id.find()) {
+            throw new IllegalStateException("Creating the book failed with " + response.statusCode() + ": " + response.body());
+        }
+        return Long.parseLong(id.group(1));
+    }
+
+    private static HttpRequest.Builder request(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60));
+    }
+
+    private static String summary(List<Long> samples, long elapsedNanos, Map<Integer, Integer> statuses) {
+        return String.format("%.0f/s p50 %s p99 %s %s", samples.size() * 1e9 / elapsedNanos,
+                millis(percentile(samples, 50)), millis(percentile(samples, 99)), statuses);
+    }
+
+    private static long percentile(List<Long> samples, int percentile) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1fms", nanos / 1e6);
+    }
+}
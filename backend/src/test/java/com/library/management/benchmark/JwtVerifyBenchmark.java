@@ -0,0 +1,109 @@
+package com.library.management.benchmark;
+
+import com.library.management.security.JwtUtil;
+import com.library.management.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks as the auth filter makes them, from several threads at once:
+ * the original filter path that rebuilt the key and parser and parsed the
+ * token three times (username, then username and expiry again to validate),
+ * a single parse with a prebuilt parser, and {@link JwtUtil#verify} serving
+ * from its cache. The overflow case verifies more distinct tokens than the
+ * cache holds, so every put evicts.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtVerify
+ * </pre>
+ * Pass -t to change the thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "myVeryLongSecretKeyThatIsAtLeast256BitsForHS256AlgorithmSecurity2024";
+    private static final int USERS = 1000;
+
+    private JwtUtil jwtUtil;
+    private JwtUtil smallCache;
+    private JwtParser parser;
+    private String[] tokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        String take(String[] tokens) {
+            next = next + 1 == tokens.length ? 0 : next + 1;
+            return tokens[next];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(USERS * 2);
+        smallCache = jwtUtil(USERS / 10);
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build();
+
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtUtil.generateToken("member" + i + "@library.com", "USER", 0);
+        }
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse(Cursor cursor) {
+        String token = cursor.take(tokens);
+        String username = legacyClaims(token).getSubject();
+        return username != null && username.equals(legacyClaims(token).getSubject())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims singleParse(Cursor cursor) {
+        return parser.parseSignedClaims(cursor.take(tokens)).getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerify(Cursor cursor) {
+        return jwtUtil.verify(cursor.take(tokens));
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerifyOverflow(Cursor cursor) {
+        return smallCache.verify(cursor.take(tokens));
+    }
+
+    // JwtUtil.extractAllClaims before the parser and key were built once
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static JwtUtil jwtUtil(int cacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtlSeconds", 300L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,125 @@
+package com.library.management.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A shift-change login spike against a running server: a crowd of clients
+ * each logging in a few times while a handful of readers fetch a book, to
+ * show whether hashing holds up the rest of the API. Reports login status
+ * codes and latency, and read latency and throughput for the same period.
+ *
+ * Start the server without rate limiting, so every login reaches the hasher,
+ * then run the harness:
+ * <pre>
+ * java -jar target/management-1.0.0.jar --ratelimit.enabled=false
+ * mvn -q test-compile
+ * java -cp target/test-classes com.library.management.benchmark.LoginLoadBenchmark \
+ *     [baseUrl] [loginClients] [loginsPerClient] [readers]
+ * </pre>
+ * Defaults are http://localhost:8080, 50 clients, 2 logins each and 4 readers.
+ */
+public class LoginLoadBenchmark {
+
+    private static final String LOGIN_BODY = "{\"email\":\"admin@library.com\",\"password\":\"Admin@123\"}";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int loginClients = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int loginsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int readers = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpResponse<String> first = client.send(login(baseUrl), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(first.body());
+        if (first.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed with " + first.statusCode() + ": " + first.body());
+        }
+        HttpRequest read = HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/1"))
+                .header("Authorization", "Bearer " + matcher.group(1))
+                .GET().build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(loginClients + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean loginsDone = new AtomicBoolean();
+        Map<Integer, Integer> loginStatuses = new ConcurrentSkipListMap<>();
+        List<Long> loginNanos = Collections.synchronizedList(new ArrayList<>());
+        List<Long> readNanos = Collections.synchronizedList(new ArrayList<>());
+
+        List<Future<?>> logins = new ArrayList<>();
+        for (int i = 0; i < loginClients; i++) {
+            logins.add(pool.submit(() -> {
+                start.await();
+                for (int n = 0; n < loginsPerClient; n++) {
+                    long begin = System.nanoTime();
+                    int status = client.send(login(baseUrl), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    loginNanos.add(System.nanoTime() - begin);
+                    loginStatuses.merge(status, 1, Integer::sum);
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> reads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            reads.add(pool.submit(() -> {
+                start.await();
+                while (!loginsDone.get()) {
+                    long begin = System.nanoTime();
+                    client.send(read, HttpResponse.BodyHandlers.discarding());
+                    readNanos.add(System.nanoTime() - begin);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> login : logins) {
+            login.get();
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        loginsDone.set(true);
+        for (Future<?> reader : reads) {
+            reader.get();
+        }
+        pool.shutdown();
+
+        System.out.printf("logins: %d in %.1fs, statuses %s, p50 %s, p99 %s%n",
+                loginNanos.size(), elapsedNanos / 1e9, loginStatuses,
+                millis(percentile(loginNanos, 50)), millis(percentile(loginNanos, 99)));
+        System.out.printf("reads:  %d, %.0f req/s, p50 %s, p99 %s%n",
+                readNanos.size(), readNanos.size() * 1e9 / elapsedNanos,
+                millis(percentile(readNanos, 50)), millis(percentile(readNanos, 99)));
+    }
+
+    private static HttpRequest login(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build();
+    }
+
+    private static long percentile(List<Long> samples, int percentile) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.0fms", nanos / 1e6);
+    }
+}
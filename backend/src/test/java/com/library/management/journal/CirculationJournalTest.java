@@ -0,0 +1,232 @@
+package com.library.management.journal;
+
+import com.library.management.model.Book;
+import com.library.management.repository.ArchivedIssueRepository;
+import com.library.management.repository.BookRepository;
+import com.library.management.repository.IssueRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CirculationJournalTest {
+
+    @TempDir
+    Path dir;
+
+    // The database the journal is checked against: quantity and available copies per book
+    private final NavigableMap<Long, int[]> books = new TreeMap<>();
+    private final Map<Long, Long> issuesPerBook = new HashMap<>();
+    private long openIssues;
+    private long maxIssueId;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final IssueRepository issueRepository = mock(IssueRepository.class);
+    private final ArchivedIssueRepository archivedIssueRepository = mock(ArchivedIssueRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<CirculationJournal> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.count()).thenAnswer(invocation -> (long) books.size());
+        when(bookRepository.findPageAfterId(anyLong(), any())).thenAnswer(invocation ->
+                books.tailMap(invocation.getArgument(0), false).entrySet().stream()
+                        .map(book -> Book.builder()
+                                .id(book.getKey())
+                                .quantity(book.getValue()[0])
+                                .availableCopies(book.getValue()[1])
+                                .build())
+                        .toList());
+        when(issueRepository.countIssuesPerBook()).thenAnswer(invocation -> issuesPerBook.entrySet().stream()
+                .map(count -> new Object[]{count.getKey(), count.getValue()})
+                .toList());
+        when(archivedIssueRepository.countIssuesPerBook()).thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation ->
+                switch ((String) invocation.getArgument(0)) {
+                    case "SELECT MAX(id) FROM issue" -> maxIssueId > 0 ? maxIssueId : null;
+                    case "SELECT COALESCE(SUM(available_copies), 0) FROM book" ->
+                            books.values().stream().mapToLong(book -> book[1]).sum();
+                    case "SELECT COUNT(*) FROM issue WHERE status <> 'RETURNED'" -> openIssues;
+                    case "SELECT COUNT(*) FROM issue" ->
+                            issuesPerBook.values().stream().mapToLong(Long::longValue).sum();
+                    case "SELECT COUNT(*) FROM issue_archive" -> 0L;
+                    default -> null;
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(CirculationJournal::close);
+    }
+
+    @Test
+    void recordsRollOverIntoNewSegmentsAndReadBackInOrder() throws IOException {
+        CirculationJournal journal = open(4);
+        addBook(journal, 1L, 20);
+        for (int i = 0; i < 9; i++) {
+            issue(journal, 1L);
+        }
+
+        assertThat(segmentFiles()).hasSize(3);
+        assertThat(journal.read(0, 100)).extracting(JournalRecord::seq)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(journal.read(3, 3)).extracting(JournalRecord::seq).containsExactly(4L, 5L, 6L);
+        journal.close();
+
+        // The last segment has room left, so appends continue in it after a restart
+        CirculationJournal reopened = open(4);
+        issue(reopened, 1L);
+        assertThat(reopened.read(8, 10)).extracting(JournalRecord::seq).containsExactly(9L, 10L, 11L);
+        assertThat(segmentFiles()).hasSize(3);
+    }
+
+    @Test
+    void tornTailIsDroppedAndOverwritten() throws IOException {
+        CirculationJournal journal = open(8);
+        addBook(journal, 1L, 5);
+        issue(journal, 1L);
+        issue(journal, 1L);
+        issue(journal, 1L);
+        journal.close();
+
+        // A crash mid-write: the last record's operands never reached the disk
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(16), 3L * CirculationJournal.RECORD_SIZE + 32);
+        }
+
+        CirculationJournal reopened = open(8);
+        assertThat(reopened.read(0, 10)).extracting(JournalRecord::seq).containsExactly(1L, 2L, 3L);
+
+        long issueId = issue(reopened, 1L);
+        List<JournalRecord> records = reopened.read(0, 10);
+        assertThat(records).extracting(JournalRecord::seq).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(records.get(3).type()).isEqualTo(JournalRecord.Type.ISSUED);
+        assertThat(records.get(3).a()).isEqualTo(issueId);
+    }
+
+    @Test
+    void snapshotPlusTailReplayMatchesTheDatabase() throws IOException {
+        books.put(1L, new int[]{3, 3});
+        books.put(2L, new int[]{2, 2});
+        CirculationJournal journal = open(4);
+        journal.verify();
+
+        long first = issue(journal, 1L);
+        issue(journal, 1L);
+        issue(journal, 2L);
+        giveBack(journal, first, 1L);
+        journal.snapshot();
+
+        addBook(journal, 3L, 4);
+        issue(journal, 3L);
+        books.get(2L)[0] += 2;
+        books.get(2L)[1] += 2;
+        journal.copiesAdjusted(2L, 2);
+        journal.close();
+
+        // Everything up to the snapshot is in it, so the segment it covers is not needed
+        Files.delete(segmentFiles().get(0));
+
+        CirculationJournal reopened = open(4);
+        Object seeded = ReflectionTestUtils.invokeMethod(reopened, "seedFromDatabase", maxIssueId);
+        assertThat(state(reopened)).isEqualTo(bookState(seeded));
+
+        // The totals agree too, so startup keeps the replayed state
+        clearInvocations(bookRepository);
+        reopened.verify();
+        verify(bookRepository, never()).findPageAfterId(anyLong(), any());
+    }
+
+    @Test
+    void recordMissingFromTheJournalIsCaughtByTheTotals() {
+        books.put(1L, new int[]{3, 3});
+        CirculationJournal journal = open(16);
+        journal.verify();
+        issue(journal, 1L);
+        issue(journal, 1L);
+
+        // A return the journal never saw leaves the book count and highest issue id unchanged
+        books.get(1L)[1]++;
+        openIssues--;
+        clearInvocations(bookRepository);
+
+        journal.verify();
+
+        verify(bookRepository).findPageAfterId(anyLong(), any());
+        assertThat(state(journal)).containsEntry(1L, List.of(3L, 2L, 2L));
+    }
+
+    private CirculationJournal open(int recordsPerSegment) {
+        CirculationJournal journal = new CirculationJournal();
+        ReflectionTestUtils.setField(journal, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(journal, "issueRepository", issueRepository);
+        ReflectionTestUtils.setField(journal, "archivedIssueRepository", archivedIssueRepository);
+        ReflectionTestUtils.setField(journal, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize", recordsPerSegment * CirculationJournal.RECORD_SIZE);
+        ReflectionTestUtils.setField(journal, "maxPageLimit", 500);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private void addBook(CirculationJournal journal, long bookId, int copies) {
+        books.put(bookId, new int[]{copies, copies});
+        journal.bookSaved(Book.builder().id(bookId).quantity(copies).availableCopies(copies).build());
+    }
+
+    private long issue(CirculationJournal journal, long bookId) {
+        long issueId = ++maxIssueId;
+        books.get(bookId)[1]--;
+        issuesPerBook.merge(bookId, 1L, Long::sum);
+        openIssues++;
+        journal.issued(issueId, bookId, 20_000);
+        return issueId;
+    }
+
+    private void giveBack(CirculationJournal journal, long issueId, long bookId) {
+        books.get(bookId)[1]++;
+        openIssues--;
+        journal.returned(issueId, bookId, 0);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static Map<Long, List<Long>> state(CirculationJournal journal) {
+        return bookState(ReflectionTestUtils.getField(journal, "state"));
+    }
+
+    /**
+     * Quantity, available copies and times issued per book, comparable by value.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Long, List<Long>> bookState(Object state) {
+        Map<Long, long[]> books = (Map<Long, long[]>) ReflectionTestUtils.getField(state, "books");
+        Map<Long, List<Long>> values = new TreeMap<>();
+        books.forEach((id, book) -> values.put(id, Arrays.stream(book).boxed().toList()));
+        return values;
+    }
+}
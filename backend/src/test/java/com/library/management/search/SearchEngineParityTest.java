@@ -0,0 +1,87 @@
+package com.library.management.search;
+
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The index engine must match exactly the books the LIKE query matches, and
+ * both engines must stop at the caller's limit.
+ */
+@DataJpaTest
+class SearchEngineParityTest {
+
+    private static final String[] TITLES = {
+            "The Pragmatic Programmer", "Clean Code", "Introduction to Algorithms", "Design Patterns",
+            "Refactoring", "Java Concurrency in Practice", "Effective Java", "Domain-Driven Design",
+            "The C++ Programming Language", "Structure and Interpretation of Computer Programs"
+    };
+    private static final String[] AUTHORS = {
+            "Andrew Hunt", "Robert C. Martin", "Thomas H. Cormen", "Erich Gamma", "Martin Fowler",
+            "Brian Goetz", "Joshua Bloch", "Eric Evans", "Bjarne Stroustrup", "Harold Abelson"
+    };
+    private static final String[] CATEGORIES = {"Programming", "Computer Science", "Software Design", null};
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private SqlSearchEngine sqlEngine;
+    private InvertedIndexSearchEngine indexEngine;
+
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            books.add(Book.builder()
+                    .title(TITLES[i % TITLES.length] + (i >= TITLES.length ? " Vol " + (i / TITLES.length) : ""))
+                    .author(AUTHORS[(i * 7) % AUTHORS.length])
+                    .isbn(String.format("978%010d", i))
+                    .category(CATEGORIES[i % CATEGORIES.length])
+                    .quantity(1)
+                    .availableCopies(1)
+                    .build());
+        }
+        bookRepository.saveAll(books);
+
+        sqlEngine = new SqlSearchEngine();
+        indexEngine = new InvertedIndexSearchEngine();
+        for (Object engine : List.of(sqlEngine, indexEngine)) {
+            ReflectionTestUtils.setField(engine, "bookRepository", bookRepository);
+        }
+        indexEngine.rebuild();
+    }
+
+    @Test
+    void matchesTheSameBooksAsTheLikeQuery() {
+        for (String keyword : List.of("java", "JAVA", "design", "es", "c+", "c++", "martin fowler", "vol 1",
+                "978000000001", "0", "ter", "science", "o", "nothing matches this", "-driven", " ")) {
+            assertThat(ids(indexEngine.search(keyword, 1000)))
+                    .as("keyword '%s'", keyword)
+                    .isEqualTo(ids(sqlEngine.search(keyword, 1000)));
+        }
+    }
+
+    @Test
+    void bothEnginesApplyTheLimit() {
+        assertThat(sqlEngine.search("o", 25)).hasSize(25);
+        assertThat(indexEngine.search("o", 25)).hasSize(25);
+        assertThat(indexEngine.searchIds("o", 25)).hasSize(25);
+    }
+
+    private static Set<Long> ids(List<Book> books) {
+        Set<Long> ids = new TreeSet<>();
+        books.forEach(book -> ids.add(book.getId()));
+        return ids;
+    }
+}
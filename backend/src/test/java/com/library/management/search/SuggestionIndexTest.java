@@ -0,0 +1,141 @@
+package com.library.management.search;
+
+import com.library.management.dto.SuggestionDTO;
+import com.library.management.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the radix trie against a brute-force scan of every phrase after
+ * random saves, deletes and borrows, so edge splits and folds are covered.
+ */
+class SuggestionIndexTest {
+
+    private static final String[] TITLE_WORDS = {"java", "javascript", "jar", "data", "database", "dat", "the", "a"};
+    private static final String[] AUTHOR_WORDS = {"kim", "kimball", "kin", "lee", "leeds", "le"};
+    private static final int MAX_RESULTS = 5;
+
+    private SuggestionIndex index;
+    private final Map<Long, String[]> books = new HashMap<>();
+    private final Map<Long, Long> borrowCounts = new HashMap<>();
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        ReflectionTestUtils.setField(index, "maxResults", MAX_RESULTS);
+    }
+
+    @Test
+    void matchesBruteForceAfterRandomUpdates() {
+        for (int step = 0; step < 3000; step++) {
+            long id = random.nextInt(40) + 1;
+            int action = random.nextInt(10);
+            if (action < 5) {
+                String title = phrase(TITLE_WORDS);
+                String author = phrase(AUTHOR_WORDS);
+                books.put(id, new String[]{title, author});
+                index.onBookSaved(Book.builder().id(id).title(title).author(author).build());
+            } else if (action < 7) {
+                books.remove(id);
+                borrowCounts.remove(id);
+                index.onBookDeleted(id);
+            } else {
+                borrowCounts.merge(id, 1L, Long::sum);
+                index.onBookBorrowed(id);
+            }
+            if (step % 50 == 0) {
+                assertAllPrefixesMatch();
+            }
+        }
+        assertAllPrefixesMatch();
+    }
+
+    @Test
+    void matchesInnerWordsAndPartialEdges() {
+        index.onBookSaved(Book.builder().id(1L).title("Database Systems").author("Kim Lee").build());
+        index.onBookSaved(Book.builder().id(2L).title("Data Science").author("Lee Kimball").build());
+        index.onBookBorrowed(2L);
+
+        assertThat(texts("datab")).containsExactly("Database Systems");
+        assertThat(texts("data")).containsExactly("Data Science", "Database Systems");
+        assertThat(texts("sys")).containsExactly("Database Systems");
+        assertThat(texts("kim")).containsExactly("Lee Kimball", "Kim Lee");
+        assertThat(texts("datx")).isEmpty();
+
+        index.onBookDeleted(2L);
+        assertThat(texts("data")).containsExactly("Database Systems");
+        assertThat(texts("sci")).isEmpty();
+    }
+
+    private void assertAllPrefixesMatch() {
+        Set<String> prefixes = new TreeSet<>();
+        for (String[] fields : books.values()) {
+            for (String field : fields) {
+                for (int i = 1; i <= field.length(); i++) {
+                    prefixes.add(field.substring(0, i));
+                }
+            }
+        }
+        prefixes.addAll(List.of("j", "ja", "jav", "d", "da", "dat", "k", "ki", "kimb", "l", "le", "zz", "t"));
+        for (String prefix : prefixes) {
+            assertThat(actual(prefix)).as("prefix '%s'", prefix).isEqualTo(expected(prefix));
+        }
+    }
+
+    private List<String> actual(String prefix) {
+        return index.suggest(prefix, MAX_RESULTS).stream()
+                .map(s -> s.getType() + ":" + s.getText() + ":" + s.getBorrowCount())
+                .collect(Collectors.toList());
+    }
+
+    private List<String> expected(String prefix) {
+        Map<String, Long> weights = new HashMap<>();
+        books.forEach((id, fields) -> {
+            long borrowed = borrowCounts.getOrDefault(id, 0L);
+            weights.merge(SuggestionIndex.TYPE_TITLE + ":" + fields[0], borrowed, Long::sum);
+            weights.merge(SuggestionIndex.TYPE_AUTHOR + ":" + fields[1], borrowed, Long::sum);
+        });
+        return weights.entrySet().stream()
+                .filter(e -> matches(e.getKey().substring(e.getKey().indexOf(':') + 1), prefix.trim()))
+                .sorted(Comparator.comparing((Map.Entry<String, Long> e) -> e.getValue()).reversed()
+                        .thenComparing(e -> e.getKey().substring(e.getKey().indexOf(':') + 1)))
+                .limit(MAX_RESULTS)
+                .map(e -> e.getKey() + ":" + e.getValue())
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(String phrase, String prefix) {
+        if (phrase.startsWith(prefix)) {
+            return true;
+        }
+        for (int i = phrase.indexOf(' '); i >= 0; i = phrase.indexOf(' ', i + 1)) {
+            if (phrase.startsWith(prefix, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, MAX_RESULTS).stream().map(SuggestionDTO::getText).collect(Collectors.toList());
+    }
+
+    private String phrase(String[] words) {
+        int length = random.nextInt(3) + 1;
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(words[random.nextInt(words.length)]);
+        }
+        return phrase.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.library.management.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.management.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route login = new RateLimitProperties.Route();
+        login.setName("login");
+        login.setPatterns(List.of("/api/auth/login"));
+        login.setCapacity(3);
+        login.setRefillPerSecond(0.001);
+        login.setBodyKeyField("email");
+        login.setMaxClients(20);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(login));
+
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        filter.init();
+    }
+
+    @Test
+    void addressBucketLimitsLoginsAcrossEmails() throws Exception {
+        assertThat(login("10.0.0.1", "a@x.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", "b@x.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", "c@x.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1", "d@x.com").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void emailBucketLimitsLoginsAcrossAddresses() throws Exception {
+        assertThat(login("10.0.0.1", "a@x.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.2", "A@x.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.3", "a@x.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.4", "a@x.com").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.4", "b@x.com").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void bodyIsReplayedToTheController() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.1", "a@x.com");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(body).contains("a@x.com");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bucketMapsStayWithinMaxClients() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            login("10.0.1." + i, "user" + i + "@x.com");
+        }
+
+        Map<String, Object> stats = (Map<String, Object>) filter.getStats().get("login");
+        assertThat((int) stats.get("clients")).isLessThanOrEqualTo(20);
+        assertThat((int) stats.get("emailKeys")).isLessThanOrEqualTo(20);
+    }
+
+    private MockHttpServletResponse login(String address, String email) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(address, email), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String address, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(address);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"x\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,217 @@
+package com.library.management.service;
+
+import com.library.management.dto.BookDTO;
+import com.library.management.dto.IssueDTO;
+import com.library.management.model.Book;
+import com.library.management.repository.BookRepository;
+import com.library.management.search.FacetIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkouts and returns racing for the same copies: the guarded updates must
+ * let exactly as many succeed as there are copies, and never take
+ * available_copies below zero or above quantity.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcurrentCheckoutTest {
+
+    private static final int THREADS = 16;
+    private static final AtomicInteger BOOKS = new AtomicInteger();
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lastCopyHasExactlyOneWinner() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            Long bookId = createBook(1);
+            Race race = race(() -> issueService.issueBook(checkout(bookId)), bookId);
+
+            assertThat(race.succeeded).as("checkouts of the last copy").isEqualTo(1);
+            assertThat(race.minAvailable).as("lowest available_copies seen").isGreaterThanOrEqualTo(0);
+            assertThat(availableCopies(bookId)).isZero();
+            assertThat(issueRows(bookId)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void checkoutsNeverExceedCopies() throws Exception {
+        Long bookId = createBook(3);
+        Race race = race(() -> issueService.issueBook(checkout(bookId)), bookId);
+
+        assertThat(race.succeeded).isEqualTo(3);
+        assertThat(race.minAvailable).isGreaterThanOrEqualTo(0);
+        assertThat(availableCopies(bookId)).isZero();
+        assertThat(issueRows(bookId)).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentReturnsRestoreOneCopy() throws Exception {
+        Long bookId = createBook(2);
+        IssueDTO issue = asAdmin(() -> issueService.issueBook(checkout(bookId)));
+
+        Race race = race(() -> issueService.returnBook(issue.getId()), bookId);
+
+        assertThat(race.succeeded).as("returns of one issue").isEqualTo(1);
+        assertThat(availableCopies(bookId)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM issue WHERE id = ?", String.class,
+                issue.getId())).isEqualTo("RETURNED");
+    }
+
+    @Test
+    void quantityEditRacingCheckoutsKeepsDerivedCountsInStep() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            BookDTO created = bookService.createBook(BookDTO.builder()
+                    .title("Restock Book " + round)
+                    .author("Race Author")
+                    .isbn(String.format("9782%09d", BOOKS.incrementAndGet()))
+                    .quantity(1)
+                    .build());
+            Long bookId = created.getId();
+            long availableBooks = availableBooksCounter();
+            AtomicInteger turn = new AtomicInteger();
+
+            // One thread adds four copies while the rest check out
+            Race race = race(() -> turn.getAndIncrement() == THREADS / 2
+                    ? bookService.updateBook(bookId, BookDTO.builder().quantity(5).build())
+                    : issueService.issueBook(checkout(bookId)), bookId);
+
+            // The derived counts follow the committed operations: five copies less each checkout
+            int checkouts = race.succeeded - 1;
+            assertThat(issueRows(bookId)).isEqualTo(checkouts);
+            boolean inStock = checkouts < 5;
+            assertThat(facetIndex.query(Map.of(FacetIndex.AVAILABLE, "true"), List.of(bookId), null, 10).getTotal())
+                    .as("facet availability").isEqualTo(inStock ? 1 : 0);
+            assertThat(availableBooksCounter() - availableBooks)
+                    .as("dashboard availability change").isEqualTo(inStock ? 0 : -1);
+        }
+    }
+
+    /**
+     * Start every thread at once and watch available_copies while they run.
+     */
+    private Race race(Callable<?> action, Long bookId) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong minAvailable = new AtomicLong(Long.MAX_VALUE);
+        Future<?> monitor = executor.submit(() -> {
+            while (running.get()) {
+                minAvailable.accumulateAndGet(availableCopies(bookId), Math::min);
+            }
+        });
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    asAdmin(action);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        running.set(false);
+        monitor.get(30, TimeUnit.SECONDS);
+        minAvailable.accumulateAndGet(availableCopies(bookId), Math::min);
+        return new Race(succeeded, minAvailable.get());
+    }
+
+    private static <T> T asAdmin(Callable<T> action) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin@library.com", null, List.of()));
+        try {
+            return action.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private Long createBook(int copies) {
+        int n = BOOKS.incrementAndGet();
+        return bookRepository.save(Book.builder()
+                .title("Race Book " + n)
+                .author("Race Author")
+                .isbn(String.format("9781%09d", n))
+                .quantity(copies)
+                .availableCopies(copies)
+                .build()).getId();
+    }
+
+    private static IssueDTO checkout(Long bookId) {
+        return IssueDTO.builder()
+                .bookId(bookId)
+                .memberName("Race Member")
+                .memberEmail("race@example.com")
+                .memberType("STUDENT")
+                .build();
+    }
+
+    private long availableBooksCounter() {
+        return (Long) dashboardCounters.getStats().get("availableBooks");
+    }
+
+    private long availableCopies(Long bookId) {
+        return jdbcTemplate.queryForObject("SELECT available_copies FROM book WHERE id = ?", Long.class, bookId);
+    }
+
+    private long issueRows(Long bookId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM issue WHERE book_id = ?", Long.class, bookId);
+    }
+
+    private record Race(int succeeded, long minAvailable) {
+    }
+}
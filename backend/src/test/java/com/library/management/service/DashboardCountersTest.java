@@ -0,0 +1,64 @@
+package com.library.management.service;
+
+import com.library.management.journal.CirculationJournal;
+import com.library.management.repository.BookRepository;
+import com.library.management.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardCountersTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CirculationJournal circulationJournal = mock(CirculationJournal.class);
+    private DashboardCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new DashboardCounters();
+        ReflectionTestUtils.setField(counters, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(counters, "userRepository", userRepository);
+        ReflectionTestUtils.setField(counters, "overdueTracker", mock(OverdueTracker.class));
+        ReflectionTestUtils.setField(counters, "circulationJournal", circulationJournal);
+
+        when(circulationJournal.getBookTotals()).thenReturn(new long[]{10, 8});
+        when(userRepository.count()).thenReturn(3L);
+        counters.init();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        when(bookRepository.count()).thenReturn(12L);
+        when(bookRepository.countByAvailableCopiesGreaterThan(0)).thenReturn(7L);
+        when(userRepository.count()).thenReturn(4L);
+
+        counters.reconcile();
+
+        assertThat(counters.getStats())
+                .containsEntry("totalBooks", 12L)
+                .containsEntry("availableBooks", 7L)
+                .containsEntry("totalUsers", 4L);
+    }
+
+    @Test
+    void adjustmentDuringTheCountIsNotLost() {
+        // The count does not see the book added while it runs
+        when(bookRepository.count()).thenAnswer(invocation -> {
+            counters.onBooksAdded(1, 1);
+            return 10L;
+        });
+        when(bookRepository.countByAvailableCopiesGreaterThan(0)).thenReturn(9L);
+
+        counters.reconcile();
+
+        assertThat(counters.getStats())
+                .containsEntry("totalBooks", 11L)
+                .containsEntry("availableBooks", 9L)
+                .containsEntry("totalUsers", 3L);
+    }
+}
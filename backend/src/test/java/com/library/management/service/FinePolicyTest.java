@@ -0,0 +1,121 @@
+package com.library.management.service;
+
+import com.library.management.config.FinePolicyProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FinePolicyTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 2);
+
+    @Test
+    void capAppliesOnlyOnceTheDailyRateReachesIt() {
+        // 300 paise does not divide 50000: day 166 is 49800, day 167 would be 50100
+        FinePolicy.Compiled policy = compile(rule("Reference", "3.00", "500.00", 0));
+        int rule = policy.ruleIndex("Reference", "STUDENT");
+        long due = TODAY.toEpochDay();
+
+        assertThat(policy.fineCents(rule, due, due + 165)).isEqualTo(49_500);
+        assertThat(policy.fineCents(rule, due, due + 166)).isEqualTo(49_800);
+        assertThat(policy.fineCents(rule, due, due + 167)).isEqualTo(50_000);
+        assertThat(policy.fineCents(rule, due, due + 400)).isEqualTo(50_000);
+    }
+
+    @Test
+    void capBoundaryForARateThatDividesTheCap() {
+        FinePolicy.Compiled policy = compile();
+        int rule = policy.ruleIndex(null, null);
+        long due = TODAY.toEpochDay();
+
+        assertThat(policy.fineCents(rule, due, due)).isZero();
+        assertThat(policy.fineCents(rule, due, due + 99)).isEqualTo(49_500);
+        assertThat(policy.fineCents(rule, due, due + 100)).isEqualTo(50_000);
+        assertThat(policy.fineCents(rule, due, due + 101)).isEqualTo(50_000);
+    }
+
+    @Test
+    void zeroRateNeverCharges() {
+        FinePolicy.Compiled policy = compile(rule("Reading Room", "0.00", "500.00", 0));
+        int rule = policy.ruleIndex("Reading Room", null);
+        long due = TODAY.toEpochDay();
+
+        assertThat(policy.fineCents(rule, due, due + 1)).isZero();
+        assertThat(policy.fineCents(rule, due, due + 1000)).isZero();
+    }
+
+    @Test
+    void graceAndClosedDaysAreNotCharged() {
+        FinePolicyProperties properties = properties(rule("Reference", "3.00", "500.00", 2));
+        properties.setClosedWeekdays(List.of(DayOfWeek.SUNDAY));
+        FinePolicy.Compiled policy = FinePolicy.compile(properties, TODAY);
+        int rule = policy.ruleIndex("Reference", null);
+
+        // Monday due, returned the next Monday: 7 days late, one Sunday, two grace days
+        long due = TODAY.toEpochDay();
+        assertThat(policy.fineCents(rule, due, due + 7)).isEqualTo(4 * 300);
+        assertThat(policy.fineCents(rule, due, due + 2)).isZero();
+    }
+
+    @Test
+    void reloadRereadsThePolicyFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("fine-policy.properties");
+        Files.writeString(file, """
+                fines.policy.rules[0].category=Reference
+                fines.policy.rules[0].loan-days=7
+                fines.policy.closed-weekdays=SUNDAY
+                fines.policy.closed-dates=2025-08-15
+                """);
+        FinePolicy finePolicy = policyFrom("file:" + file);
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        assertThat(finePolicy.calculateDueDate(monday, "reference", null)).isEqualTo(monday.plusDays(7));
+        assertThat(finePolicy.getSummary().get("closedDays")).isNotEqualTo(0);
+
+        Files.writeString(file, "fines.policy.rules[0].category=Reference\nfines.policy.rules[0].loan-days=3\n");
+        finePolicy.reload();
+        assertThat(finePolicy.calculateDueDate(monday, "Reference", null)).isEqualTo(monday.plusDays(3));
+        assertThat(finePolicy.getSummary().get("closedDays")).isEqualTo(0);
+    }
+
+    @Test
+    void reloadWithoutAPolicyFileIsRejected() {
+        FinePolicy finePolicy = policyFrom("");
+
+        assertThatThrownBy(finePolicy::reload).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static FinePolicy policyFrom(String location) {
+        FinePolicy finePolicy = new FinePolicy();
+        ReflectionTestUtils.setField(finePolicy, "properties", new FinePolicyProperties());
+        ReflectionTestUtils.setField(finePolicy, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(finePolicy, "location", location);
+        finePolicy.init();
+        return finePolicy;
+    }
+
+    private static FinePolicy.Compiled compile(FinePolicyProperties.Rule... rules) {
+        return FinePolicy.compile(properties(rules), TODAY);
+    }
+
+    private static FinePolicyProperties properties(FinePolicyProperties.Rule... rules) {
+        FinePolicyProperties properties = new FinePolicyProperties();
+        properties.setRules(List.of(rules));
+        return properties;
+    }
+
+    private static FinePolicyProperties.Rule rule(String category, String rate, String max, int graceDays) {
+        return new FinePolicyProperties.Rule(category, null, null, graceDays, new BigDecimal(rate), new BigDecimal(max));
+    }
+}
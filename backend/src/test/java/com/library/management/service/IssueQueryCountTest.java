@@ -0,0 +1,138 @@
+package com.library.management.service;
+
+import com.library.management.dto.IssueDTO;
+import com.library.management.model.Book;
+import com.library.management.model.Issue;
+import com.library.management.model.User;
+import com.library.management.repository.BookRepository;
+import com.library.management.repository.IssueRepository;
+import com.library.management.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Issue reads must load book and user with the issue rows, so the number of
+ * statements stays the same however many issues are listed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IssueQueryCountTest {
+
+    private static final int ISSUES = 30;
+
+    @Autowired
+    private IssueService issueService;
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long issueId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!userRepository.existsByEmail("querycount0@library.com")) {
+            createIssues();
+        }
+        issueId = issueRepository.findByMemberEmail("querycount-member0@example.com").get(0).getId();
+    }
+
+    private void createIssues() {
+
+        List<User> users = new ArrayList<>();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(userRepository.save(User.builder()
+                    .name("Query Count " + i)
+                    .email("querycount" + i + "@library.com")
+                    .password("unused")
+                    .role(User.Role.LIBRARIAN)
+                    .isActive(true)
+                    .build()));
+            books.add(bookRepository.save(Book.builder()
+                    .title("Query Count Book " + i)
+                    .author("Author " + i)
+                    .isbn("97800000900" + i)
+                    .quantity(ISSUES)
+                    .availableCopies(ISSUES)
+                    .build()));
+        }
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < ISSUES; i++) {
+            LocalDate issued = LocalDate.now().minusDays(10 + i);
+            issues.add(Issue.builder()
+                    .book(books.get(i % books.size()))
+                    .user(users.get((i * 3) % users.size()))
+                    .memberName("Member " + i)
+                    .memberEmail("querycount-member" + i + "@example.com")
+                    .memberType("STUDENT")
+                    .issueDate(issued)
+                    .dueDate(i % 2 == 0 ? issued.plusDays(5) : LocalDate.now().plusDays(i))
+                    .status(Issue.IssueStatus.ISSUED)
+                    .fine(BigDecimal.ZERO)
+                    .build());
+        }
+        issueRepository.saveAll(issues);
+        overdueTracker.rebuild();
+    }
+
+    @Test
+    void listingAllIssuesReadsLiveAndArchivedIssuesOnce() {
+        List<IssueDTO> issues = statements(2, () -> issueService.getAllIssues());
+        assertThat(issues).hasSizeGreaterThanOrEqualTo(ISSUES);
+        assertThat(issues).allSatisfy(issue -> assertThat(issue.getUserName()).isNotNull());
+    }
+
+    @Test
+    void activeIssuesAreOneStatement() {
+        assertThat(statements(1, () -> issueService.getActiveIssues())).hasSizeGreaterThanOrEqualTo(ISSUES);
+    }
+
+    @Test
+    void overdueIssuesAreOneStatement() {
+        assertThat(statements(1, () -> issueService.getOverdueIssues())).hasSizeGreaterThanOrEqualTo(ISSUES / 2);
+        assertThat(statements(1, () -> issueService.getOverdueIssues(null, 100).getItems()))
+                .hasSizeGreaterThanOrEqualTo(ISSUES / 2);
+    }
+
+    @Test
+    void issueByIdIsOneStatement() {
+        IssueDTO issue = statements(1, () -> issueService.getIssueById(issueId));
+        assertThat(issue.getBookTitle()).isNotNull();
+        assertThat(issue.getUserName()).isNotNull();
+    }
+
+    private <T> T statements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount()).as("statements").isEqualTo(expected);
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.management.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentBoundedCacheTest {
+
+    @Test
+    void expiredEntriesAreMissesAndPurged() throws InterruptedException {
+        ConcurrentBoundedCache<String, String> cache = new ConcurrentBoundedCache<>(10, 60_000);
+        cache.put("short", "a", 1);
+        cache.put("long", "b", 60_000);
+        Thread.sleep(5);
+
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isEqualTo("b");
+        cache.put("gone", "c", 1);
+        Thread.sleep(5);
+        cache.purgeExpired();
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getStats())
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 1L)
+                .containsEntry("expirations", 2L);
+    }
+
+    @Test
+    void concurrentPutsStayWithinTheBound() throws Exception {
+        ConcurrentBoundedCache<Integer, Integer> cache = new ConcurrentBoundedCache<>(100, 60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CyclicBarrier start = new CyclicBarrier(8);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 10_000;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5_000; i++) {
+                        cache.put(offset + i, i, 60_000);
+                        cache.get(offset + i / 2);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A put past the bound evicts before returning, so once all are done the cache is within it
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat((Long) cache.getStats().get("evictions")).isEqualTo(40_000L - cache.size());
+    }
+}
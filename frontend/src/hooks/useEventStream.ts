@@ -0,0 +1,72 @@
+import { useEffect, useRef } from 'react';
+import api from '../services/api';
+
+type EventHandlers = Record<string, (data: any) => void>;
+
+const RECONNECT_DELAY_MS = 3000;
+
+/**
+ * Subscribe to the server's event stream (GET /api/events). fetch is used
+ * instead of EventSource so the JWT can be sent in the Authorization header.
+ * The stream reconnects after errors; the first event on every connection is
+ * a fresh stats snapshot.
+ */
+function useEventStream(handlers: EventHandlers) {
+    const handlersRef = useRef(handlers);
+    handlersRef.current = handlers;
+
+    useEffect(() => {
+        const controller = new AbortController();
+        let retry: ReturnType<typeof setTimeout>;
+
+        const dispatch = (frame: string) => {
+            let name = 'message';
+            const data: string[] = [];
+            for (const line of frame.split('\n')) {
+                if (line.startsWith('event:')) name = line.slice(6).trim();
+                else if (line.startsWith('data:')) data.push(line.slice(5));
+            }
+            const handler = handlersRef.current[name];
+            if (handler && data.length > 0) {
+                handler(JSON.parse(data.join('\n')));
+            }
+        };
+
+        const connect = async () => {
+            try {
+                const response = await fetch(`${api.defaults.baseURL}/events`, {
+                    headers: {
+                        Accept: 'text/event-stream',
+                        Authorization: `Bearer ${localStorage.getItem('token')}`,
+                    },
+                    signal: controller.signal,
+                });
+                if (!response.ok || !response.body) throw new Error(`Event stream failed: ${response.status}`);
+
+                const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = '';
+                for (;;) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value;
+                    let end;
+                    while ((end = buffer.indexOf('\n\n')) >= 0) {
+                        dispatch(buffer.slice(0, end));
+                        buffer = buffer.slice(end + 2);
+                    }
+                }
+            } catch {
+                if (controller.signal.aborted) return;
+            }
+            retry = setTimeout(connect, RECONNECT_DELAY_MS);
+        };
+
+        connect();
+        return () => {
+            controller.abort();
+            clearTimeout(retry);
+        };
+    }, []);
+}
+
+export default useEventStream;
@@ -20,10 +20,13 @@ import {
     TrendingUp as TrendingIcon,
 } from '@mui/icons-material';
 import issueService from '../services/issueService';
+import useEventStream from '../hooks/useEventStream';
 import { Issue } from '../types/Issue';
 import { formatDate, isOverdue } from '../utils/helpers';
 import LoadingSpinner from '../components/common/LoadingSpinner';
 
+const RECENT_ISSUES = 5;
+
 const Dashboard: React.FC = () => {
     const [stats, setStats] = useState<any>(null);
     const [recentIssues, setRecentIssues] = useState<Issue[]>([]);
@@ -33,14 +36,30 @@ const Dashboard: React.FC = () => {
         fetchData();
     }, []);
 
+    // Counters and activity arrive pushed; events carry the fields the list shows
+    useEventStream({
+        stats: setStats,
+        'issue.issued': (issue: Issue) =>
+            setRecentIssues((current) =>
+                [issue, ...current.filter((item) => item.id !== issue.id)].slice(0, RECENT_ISSUES)),
+        'issue.returned': (event: Pick<Issue, 'id' | 'fine' | 'returnDate'>) =>
+            setRecentIssues((current) =>
+                current.map((item) =>
+                    item.id === event.id
+                        ? { ...item, status: 'RETURNED', fine: event.fine, returnDate: event.returnDate }
+                        : item
+                )
+            ),
+    });
+
     const fetchData = async () => {
         try {
             const [statsData, issuesData] = await Promise.all([
                 issueService.getDashboardStats(),
-                issueService.getAllIssues(),
+                issueService.getRecentIssues(RECENT_ISSUES),
             ]);
             setStats(statsData);
-            setRecentIssues(issuesData.slice(0, 5));
+            setRecentIssues(issuesData);
         } catch (error) {
             console.error('Failed to fetch dashboard data');
         } finally {
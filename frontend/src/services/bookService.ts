@@ -1,9 +1,9 @@
 import api from './api';
-import { Book, BookFormData } from '../types/Book';
+import { Book, BookFormData, BookSearchResults, BookSuggestion } from '../types/Book';
 
 const bookService = {
     getAllBooks: async (): Promise<Book[]> => {
-        const response = await api.get<Book[]>('/books');
+        const response = await api.get<Book[]>('/books', { params: { unpaged: true } });
         return response.data;
     },
 
@@ -26,8 +26,13 @@ const bookService = {
         await api.delete(`/books/${id}`);
     },
 
-    searchBooks: async (keyword: string): Promise<Book[]> => {
-        const response = await api.get<Book[]>(`/books/search?keyword=${encodeURIComponent(keyword)}`);
+    searchBooks: async (keyword: string): Promise<BookSearchResults> => {
+        const response = await api.get<BookSearchResults>(`/books/search?keyword=${encodeURIComponent(keyword)}`);
+        return response.data;
+    },
+
+    suggestBooks: async (prefix: string, limit = 10): Promise<BookSuggestion[]> => {
+        const response = await api.get<BookSuggestion[]>('/books/suggest', { params: { prefix, limit } });
         return response.data;
     },
 };
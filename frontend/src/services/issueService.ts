@@ -13,7 +13,12 @@ const issueService = {
     },
 
     getAllIssues: async (): Promise<Issue[]> => {
-        const response = await api.get<Issue[]>('/issues');
+        const response = await api.get<Issue[]>('/issues', { params: { unpaged: true } });
+        return response.data;
+    },
+
+    getRecentIssues: async (limit: number): Promise<Issue[]> => {
+        const response = await api.get<Issue[]>('/issues/recent', { params: { limit } });
         return response.data;
     },
 
@@ -3,7 +3,7 @@ import { User } from '../types/User';
 
 const userService = {
     getAllUsers: async (): Promise<User[]> => {
-        const response = await api.get<User[]>('/users');
+        const response = await api.get<User[]>('/users', { params: { unpaged: true } });
         return response.data;
     },
 
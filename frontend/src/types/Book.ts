@@ -25,3 +25,16 @@ export interface BookFormData {
     price: number;
     description: string;
 }
+
+export interface BookSuggestion {
+    text: string;
+    type: 'TITLE' | 'AUTHOR';
+    borrowCount: number;
+}
+
+// hasMore is set when the search stopped at its result cap
+export interface BookSearchResults {
+    items: Book[];
+    hasMore: boolean;
+    limit: number;
+}